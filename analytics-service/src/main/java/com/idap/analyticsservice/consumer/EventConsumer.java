@@ -1,6 +1,12 @@
 package com.idap.analyticsservice.consumer;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.idap.analyticsservice.service.AnalyticsService;
+import com.idap.events.avro.CryptoQuoteUpdated;
+import com.idap.events.avro.NewsArticlePublished;
+import com.idap.events.avro.StockQuoteUpdated;
+import com.idap.events.avro.WeatherUpdated;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -10,6 +16,8 @@ import java.util.Map;
 
 /**
  * Kafka consumer for all event topics.
+ * Avro events arrive as generated classes and are processed without building maps;
+ * JSON events are processed as maps.
  */
 @Component
 @RequiredArgsConstructor
@@ -17,28 +25,57 @@ import java.util.Map;
 public class EventConsumer {
 
     private final AnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "weather.updated", groupId = "analytics-service")
-    public void consumeWeatherEvent(Map<String, Object> event) {
+    public void consumeWeatherEvent(Object payload) {
+        if (payload instanceof WeatherUpdated event) {
+            log.info("Received weather event: {}", event.getCity());
+            analyticsService.processWeatherEvent(event);
+            return;
+        }
+        Map<String, Object> event = asMap(payload);
         log.info("Received weather event: {}", event.get("city"));
         analyticsService.processWeatherEvent(event);
     }
 
     @KafkaListener(topics = "financial.stock.updated", groupId = "analytics-service")
-    public void consumeStockEvent(Map<String, Object> event) {
+    public void consumeStockEvent(Object payload) {
+        if (payload instanceof StockQuoteUpdated event) {
+            log.info("Received stock event: {}", event.getSymbol());
+            analyticsService.processStockEvent(event);
+            return;
+        }
+        Map<String, Object> event = asMap(payload);
         log.info("Received stock event: {}", event.get("symbol"));
         analyticsService.processStockEvent(event);
     }
 
     @KafkaListener(topics = "financial.crypto.updated", groupId = "analytics-service")
-    public void consumeCryptoEvent(Map<String, Object> event) {
+    public void consumeCryptoEvent(Object payload) {
+        if (payload instanceof CryptoQuoteUpdated event) {
+            log.info("Received crypto event: {}", event.getSymbol());
+            analyticsService.processCryptoEvent(event);
+            return;
+        }
+        Map<String, Object> event = asMap(payload);
         log.info("Received crypto event: {}", event.get("symbol"));
         analyticsService.processCryptoEvent(event);
     }
 
     @KafkaListener(topics = "news.article.published", groupId = "analytics-service")
-    public void consumeNewsEvent(Map<String, Object> event) {
+    public void consumeNewsEvent(Object payload) {
+        if (payload instanceof NewsArticlePublished event) {
+            log.info("Received news event: {}", event.getTitle());
+            analyticsService.processNewsEvent(event);
+            return;
+        }
+        Map<String, Object> event = asMap(payload);
         log.info("Received news event: {}", event.get("title"));
         analyticsService.processNewsEvent(event);
     }
+
+    private Map<String, Object> asMap(Object payload) {
+        return objectMapper.convertValue(payload, new TypeReference<Map<String, Object>>() {});
+    }
 }
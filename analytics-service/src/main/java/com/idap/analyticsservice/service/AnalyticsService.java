@@ -2,9 +2,15 @@ package com.idap.analyticsservice.service;
 
 import com.idap.analyticsservice.model.Insight;
 import com.idap.analyticsservice.repository.InsightRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idap.events.avro.CryptoQuoteUpdated;
+import com.idap.events.avro.NewsArticlePublished;
+import com.idap.events.avro.StockQuoteUpdated;
+import com.idap.events.avro.WeatherUpdated;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -21,21 +27,15 @@ public class AnalyticsService {
 
     public void processWeatherEvent(Map<String, Object> event) {
         try {
-            String city = (String) event.get("city");
-            Double temp = getDouble(event.get("temperature"));
-            
-            // Generate weather insight
-            if (temp != null && temp > 30) {
-                saveInsight("WEATHER_ALERT", 
-                    "High Temperature Alert: " + city,
-                    "Temperature in " + city + " has reached " + temp + "°C",
-                    "weather", 0.8, event);
-            } else if (temp != null && temp < 0) {
-                saveInsight("WEATHER_ALERT",
-                    "Freezing Temperature Alert: " + city,
-                    "Temperature in " + city + " has dropped to " + temp + "°C",
-                    "weather", 0.8, event);
-            }
+            weatherInsight((String) event.get("city"), getDouble(event.get("currentTemperature")), event);
+        } catch (Exception e) {
+            log.error("Error processing weather event: {}", e.getMessage());
+        }
+    }
+
+    public void processWeatherEvent(WeatherUpdated event) {
+        try {
+            weatherInsight(event.getCity(), event.getCurrentTemperature(), event);
         } catch (Exception e) {
             log.error("Error processing weather event: {}", e.getMessage());
         }
@@ -43,17 +43,15 @@ public class AnalyticsService {
 
     public void processStockEvent(Map<String, Object> event) {
         try {
-            String symbol = (String) event.get("symbol");
-            Double percentChange = getDouble(event.get("percentChange"));
-            
-            // Generate stock insight for significant moves
-            if (percentChange != null && Math.abs(percentChange) > 5) {
-                String direction = percentChange > 0 ? "surged" : "dropped";
-                saveInsight("STOCK_MOVEMENT",
-                    symbol + " " + direction + " " + String.format("%.2f", Math.abs(percentChange)) + "%",
-                    "Significant stock movement detected for " + symbol,
-                    "stocks", Math.abs(percentChange) / 10, event);
-            }
+            stockInsight((String) event.get("symbol"), getDouble(event.get("percentChange")), event);
+        } catch (Exception e) {
+            log.error("Error processing stock event: {}", e.getMessage());
+        }
+    }
+
+    public void processStockEvent(StockQuoteUpdated event) {
+        try {
+            stockInsight(event.getSymbol(), getDouble(event.getPercentChange()), event);
         } catch (Exception e) {
             log.error("Error processing stock event: {}", e.getMessage());
         }
@@ -61,17 +59,15 @@ public class AnalyticsService {
 
     public void processCryptoEvent(Map<String, Object> event) {
         try {
-            String symbol = (String) event.get("symbol");
-            Double percentChange = getDouble(event.get("percentChange24h"));
-            
-            // Generate crypto insight for significant moves
-            if (percentChange != null && Math.abs(percentChange) > 3) {
-                String direction = percentChange > 0 ? "up" : "down";
-                saveInsight("CRYPTO_MOVEMENT",
-                    symbol + " is " + direction + " " + String.format("%.2f", Math.abs(percentChange)) + "% in 24h",
-                    "Crypto market movement detected for " + symbol,
-                    "crypto", Math.abs(percentChange) / 10, event);
-            }
+            cryptoInsight((String) event.get("symbol"), getDouble(event.get("percentChange24h")), event);
+        } catch (Exception e) {
+            log.error("Error processing crypto event: {}", e.getMessage());
+        }
+    }
+
+    public void processCryptoEvent(CryptoQuoteUpdated event) {
+        try {
+            cryptoInsight(event.getSymbol(), getDouble(event.getPercentChange24h()), event);
         } catch (Exception e) {
             log.error("Error processing crypto event: {}", e.getMessage());
         }
@@ -79,22 +75,68 @@ public class AnalyticsService {
 
     public void processNewsEvent(Map<String, Object> event) {
         try {
-            String title = (String) event.get("title");
-            String category = (String) event.get("category");
-            String sentiment = (String) event.get("sentiment");
-            
-            // Generate news insight
-            if ("NEGATIVE".equals(sentiment)) {
-                saveInsight("NEWS_SENTIMENT",
-                    "Negative News: " + (title != null ? title.substring(0, Math.min(50, title.length())) : "Unknown"),
-                    "Negative sentiment detected in " + category + " news",
-                    category, 0.6, event);
-            }
+            newsInsight((String) event.get("title"), (String) event.get("category"),
+                (String) event.get("sentiment"), event);
         } catch (Exception e) {
             log.error("Error processing news event: {}", e.getMessage());
         }
     }
 
+    public void processNewsEvent(NewsArticlePublished event) {
+        try {
+            newsInsight(event.getTitle(), event.getCategory(), event.getSentiment(), event);
+        } catch (Exception e) {
+            log.error("Error processing news event: {}", e.getMessage());
+        }
+    }
+
+    private void weatherInsight(String city, Double temp, Object event) {
+        // Generate weather insight
+        if (temp != null && temp > 30) {
+            saveInsight("WEATHER_ALERT", 
+                "High Temperature Alert: " + city,
+                "Temperature in " + city + " has reached " + temp + "°C",
+                "weather", 0.8, event);
+        } else if (temp != null && temp < 0) {
+            saveInsight("WEATHER_ALERT",
+                "Freezing Temperature Alert: " + city,
+                "Temperature in " + city + " has dropped to " + temp + "°C",
+                "weather", 0.8, event);
+        }
+    }
+
+    private void stockInsight(String symbol, Double percentChange, Object event) {
+        // Generate stock insight for significant moves
+        if (percentChange != null && Math.abs(percentChange) > 5) {
+            String direction = percentChange > 0 ? "surged" : "dropped";
+            saveInsight("STOCK_MOVEMENT",
+                symbol + " " + direction + " " + String.format("%.2f", Math.abs(percentChange)) + "%",
+                "Significant stock movement detected for " + symbol,
+                "stocks", Math.abs(percentChange) / 10, event);
+        }
+    }
+
+    private void cryptoInsight(String symbol, Double percentChange, Object event) {
+        // Generate crypto insight for significant moves
+        if (percentChange != null && Math.abs(percentChange) > 3) {
+            String direction = percentChange > 0 ? "up" : "down";
+            saveInsight("CRYPTO_MOVEMENT",
+                symbol + " is " + direction + " " + String.format("%.2f", Math.abs(percentChange)) + "% in 24h",
+                "Crypto market movement detected for " + symbol,
+                "crypto", Math.abs(percentChange) / 10, event);
+        }
+    }
+
+    private void newsInsight(String title, String category, String sentiment, Object event) {
+        // Generate news insight
+        if ("NEGATIVE".equals(sentiment)) {
+            saveInsight("NEWS_SENTIMENT",
+                "Negative News: " + (title != null ? title.substring(0, Math.min(50, title.length())) : "Unknown"),
+                "Negative sentiment detected in " + category + " news",
+                category, 0.6, event);
+        }
+    }
+
     public List<Insight> getActiveInsights() {
         return insightRepository.findByActiveTrueOrderByGeneratedAtDesc();
     }
@@ -113,7 +155,7 @@ public class AnalyticsService {
     }
 
     private void saveInsight(String type, String title, String description, 
-                            String category, Double score, Map<String, Object> data) {
+                            String category, Double score, Object data) {
         try {
             Insight insight = Insight.builder()
                     .type(type)
@@ -121,7 +163,7 @@ public class AnalyticsService {
                     .description(description)
                     .category(category)
                     .score(score)
-                    .data(objectMapper.writeValueAsString(data))
+                    .data(toJson(data))
                     .generatedAt(LocalDateTime.now())
                     .expiresAt(LocalDateTime.now().plusHours(24))
                     .active(true)
@@ -134,6 +176,13 @@ public class AnalyticsService {
         }
     }
 
+    /**
+     * Avro records render themselves as JSON; JSON events are maps.
+     */
+    private String toJson(Object data) throws JsonProcessingException {
+        return data instanceof SpecificRecord ? data.toString() : objectMapper.writeValueAsString(data);
+    }
+
     private Double getDouble(Object value) {
         if (value == null) return null;
         if (value instanceof Number) return ((Number) value).doubleValue();
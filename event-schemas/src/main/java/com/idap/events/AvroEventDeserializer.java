@@ -0,0 +1,133 @@
+package com.idap.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes Avro single-object encoded events into their generated classes and
+ * passes every other payload to a delegate deserializer.
+ *
+ * The encoding is detected from the message's two-byte marker, which no JSON
+ * document starts with, so a topic can carry both while producers migrate.
+ * The writer schema is looked up by fingerprint in the {@link EventSchemaRegistry}
+ * and resolved against the schema of the generated class with the same name.
+ *
+ * Configured through the Kafka consumer properties: {@link #VALUE_DELEGATE_CONFIG}
+ * names the delegate class, {@link EventSchemaRegistry#SCHEMA_DIR_CONFIG} an
+ * optional directory of extra schemas.
+ */
+public class AvroEventDeserializer implements Deserializer<Object> {
+
+    /**
+     * Serde config key naming the deserializer used for non-Avro payloads.
+     */
+    public static final String VALUE_DELEGATE_CONFIG = "idap.events.value.delegate.class";
+
+    private static final byte MARKER_0 = (byte) 0xC3;
+    private static final byte MARKER_1 = (byte) 0x01;
+    private static final int HEADER_LENGTH = 10;
+
+    private Deserializer<Object> delegate;
+    private EventSchemaRegistry registry;
+    private final Map<Long, BinaryMessageDecoder<SpecificRecord>> decoders = new ConcurrentHashMap<>();
+
+    public AvroEventDeserializer() {
+    }
+
+    public AvroEventDeserializer(Deserializer<?> delegate, EventSchemaRegistry registry) {
+        this.delegate = cast(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (registry == null) {
+            Object directory = configs.get(EventSchemaRegistry.SCHEMA_DIR_CONFIG);
+            registry = EventSchemaRegistry.fromDirectory(directory != null ? directory.toString() : null);
+        }
+        if (delegate == null) {
+            Object delegateClass = configs.get(VALUE_DELEGATE_CONFIG);
+            if (delegateClass == null) {
+                throw new IllegalStateException(VALUE_DELEGATE_CONFIG + " is required");
+            }
+            try {
+                delegate = cast(Class.forName(delegateClass.toString()).getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create delegate deserializer " + delegateClass, e);
+            }
+        }
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (!isAvro(data)) {
+            return delegate.deserialize(topic, headers, data);
+        }
+        long fingerprint = fingerprint(data);
+        try {
+            return decoders.computeIfAbsent(fingerprint, this::decoderFor).decode(data);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode event from " + topic, e);
+        }
+    }
+
+    /**
+     * Decoder whose reader schema is the generated class matching the writer schema's name.
+     */
+    private BinaryMessageDecoder<SpecificRecord> decoderFor(long fingerprint) {
+        Schema writer = registry.findByFingerprint(fingerprint);
+        if (writer == null) {
+            throw new SerializationException("Unknown event schema fingerprint " + fingerprint);
+        }
+        Class<?> type = SpecificData.get().getClass(writer);
+        if (type == null) {
+            throw new SerializationException("No generated class for event schema " + writer.getFullName());
+        }
+        // The class's own model carries its logical type conversions
+        SpecificData model = SpecificData.getForClass(type);
+        return new BinaryMessageDecoder<>(model, model.getSchema(type), registry);
+    }
+
+    private boolean isAvro(byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MARKER_0 && data[1] == MARKER_1;
+    }
+
+    /**
+     * The fingerprint follows the marker as a little-endian long.
+     */
+    private long fingerprint(byte[] data) {
+        long fingerprint = 0;
+        for (int i = HEADER_LENGTH - 1; i >= 2; i--) {
+            fingerprint = (fingerprint << 8) | (data[i] & 0xFF);
+        }
+        return fingerprint;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Deserializer<Object> cast(Object deserializer) {
+        return (Deserializer<Object>) deserializer;
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+}
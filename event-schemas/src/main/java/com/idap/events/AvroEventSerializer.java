@@ -0,0 +1,61 @@
+package com.idap.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes generated Avro event classes in Avro single-object encoding: a two-byte
+ * marker, the schema fingerprint and the binary body, with no field names on the wire.
+ * Any other value is handed to the delegate, so a producer can switch topic by topic.
+ */
+public class AvroEventSerializer implements Serializer<Object> {
+
+    private final Serializer<Object> delegate;
+    private final Map<Schema, BinaryMessageEncoder<SpecificRecordBase>> encoders = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public AvroEventSerializer(Serializer<?> delegate) {
+        this.delegate = (Serializer<Object>) delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (!(data instanceof SpecificRecordBase record)) {
+            return delegate.serialize(topic, headers, data);
+        }
+        try {
+            ByteBuffer buffer = encoders.computeIfAbsent(record.getSchema(),
+                    schema -> new BinaryMessageEncoder<>(record.getSpecificData(), schema)).encode(record);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode " + record.getSchema().getFullName(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+}
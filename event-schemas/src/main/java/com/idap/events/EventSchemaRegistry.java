@@ -0,0 +1,82 @@
+package com.idap.events;
+
+import com.idap.events.avro.CryptoQuoteUpdated;
+import com.idap.events.avro.NewsArticlePublished;
+import com.idap.events.avro.StockQuoteUpdated;
+import com.idap.events.avro.WeatherUpdated;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.message.SchemaStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * File-based stand-in for a schema registry.
+ *
+ * Schemas are identified by their 64-bit Avro fingerprint, which every
+ * single-object encoded message carries in its header. The registry always
+ * knows the schemas of the generated event classes; older or newer writer
+ * versions can be added as .avsc files in the schema directory, so consumers
+ * can still decode messages from producers on another schema version.
+ */
+public class EventSchemaRegistry implements SchemaStore {
+
+    /**
+     * Serde config key naming the directory of additional .avsc files.
+     */
+    public static final String SCHEMA_DIR_CONFIG = "idap.events.schema-dir";
+
+    private static final List<Schema> BUILT_IN = List.of(
+            WeatherUpdated.getClassSchema(),
+            StockQuoteUpdated.getClassSchema(),
+            CryptoQuoteUpdated.getClassSchema(),
+            NewsArticlePublished.getClassSchema());
+
+    private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+    public EventSchemaRegistry() {
+        BUILT_IN.forEach(this::register);
+    }
+
+    /**
+     * Registry with the built-in schemas plus every .avsc file in the given directory, if it exists.
+     */
+    public static EventSchemaRegistry fromDirectory(String directory) {
+        EventSchemaRegistry registry = new EventSchemaRegistry();
+        if (directory == null || directory.isBlank() || !Files.isDirectory(Path.of(directory))) {
+            return registry;
+        }
+        try (Stream<Path> files = Files.walk(Path.of(directory))) {
+            files.filter(file -> file.toString().endsWith(".avsc"))
+                    .forEach(file -> registry.register(parse(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read event schemas from " + directory, e);
+        }
+        return registry;
+    }
+
+    public void register(Schema schema) {
+        schemas.put(SchemaNormalization.parsingFingerprint64(schema), schema);
+    }
+
+    @Override
+    public Schema findByFingerprint(long fingerprint) {
+        return schemas.get(fingerprint);
+    }
+
+    private static Schema parse(Path file) {
+        try {
+            return new Schema.Parser().parse(file.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse event schema " + file, e);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.idap.financialservice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding cost of a Finnhub /quote response: the old untyped Map binding with
+ * per-field BigDecimal conversion against binding straight into {@link FinnhubQuote}.
+ * Run with -prof gc to compare gc.alloc.rate.norm (bytes allocated per decode).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinnhubQuoteDecodeBenchmark {
+
+    private static final String[] FIELDS = {"c", "h", "l", "o", "pc", "d", "dp"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = """
+            {"c":189.84,"d":-1.2,"dp":-0.6282,"h":191.08,"l":188.42,"o":190.33,"pc":191.04,"t":1760644800}
+            """.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void decodeToMap(Blackhole blackhole) throws IOException {
+        Map<String, Object> response = objectMapper.readValue(payload, Map.class);
+        for (String field : FIELDS) {
+            blackhole.consume(getBigDecimal(response.get(field)));
+        }
+    }
+
+    @Benchmark
+    public void decodeToRecord(Blackhole blackhole) throws IOException {
+        FinnhubQuote quote = objectMapper.readValue(payload, FinnhubQuote.class);
+        blackhole.consume(quote.current());
+        blackhole.consume(quote.high());
+        blackhole.consume(quote.low());
+        blackhole.consume(quote.open());
+        blackhole.consume(quote.previousClose());
+        blackhole.consume(quote.change());
+        blackhole.consume(quote.percentChange());
+    }
+
+    /**
+     * The conversion the client used before the typed record.
+     */
+    private static BigDecimal getBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (Exception e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
+}
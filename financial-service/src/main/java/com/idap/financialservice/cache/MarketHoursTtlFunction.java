@@ -0,0 +1,36 @@
+package com.idap.financialservice.cache;
+
+import com.idap.financialservice.service.ExchangeCalendar;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * TTL for stock quote cache entries that follows the symbol's trading session.
+ * While the exchange trades, entries live for the short open TTL. While it is
+ * closed the price cannot change, so entries live until the next open,
+ * capped at the maximum closed TTL and never shorter than the open TTL.
+ */
+public class MarketHoursTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final ExchangeCalendar calendar;
+    private final Duration openTtl;
+    private final Duration maxClosedTtl;
+
+    public MarketHoursTtlFunction(ExchangeCalendar calendar, Duration openTtl, Duration maxClosedTtl) {
+        this.calendar = calendar;
+        this.openTtl = openTtl;
+        this.maxClosedTtl = maxClosedTtl;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        Duration untilOpen = calendar.untilNextOpen(key.toString(), Instant.now());
+        if (untilOpen.compareTo(openTtl) <= 0) {
+            return openTtl;
+        }
+        return untilOpen.compareTo(maxClosedTtl) > 0 ? maxClosedTtl : untilOpen;
+    }
+
+}
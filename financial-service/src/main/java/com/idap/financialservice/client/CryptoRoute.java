@@ -0,0 +1,8 @@
+package com.idap.financialservice.client;
+
+/**
+ * Where to fetch a crypto pair: the Finnhub symbol including its exchange prefix,
+ * plus the pair's base and quote currency.
+ */
+public record CryptoRoute(String finnhubSymbol, String exchange, String baseCurrency, String quoteCurrency) {
+}
@@ -0,0 +1,163 @@
+package com.idap.financialservice.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves crypto symbols to Finnhub exchange routes.
+ *
+ * Symbol metadata of the configured exchanges is loaded from Finnhub's
+ * /crypto/symbol endpoint at startup and refreshed periodically, then swapped
+ * in as one immutable map, so resolving is a single O(1) lookup. A pair is
+ * found by its canonical symbol (base and quote without separator, e.g.
+ * BTCUSDT) or by its exchange-qualified Finnhub symbol (e.g. COINBASE:BTC-USD).
+ * When a pair trades on several exchanges, the first configured exchange wins.
+ * Unknown symbols, and all symbols when metadata cannot be loaded, get a route
+ * on the default exchange derived from known quote currencies; those routes are
+ * memoised as well.
+ */
+@Component
+@Slf4j
+public class CryptoSymbolRegistry {
+
+    private static final List<String> QUOTE_CURRENCIES =
+            List.of("USDT", "USDC", "BUSD", "FDUSD", "USD", "EUR", "GBP", "BTC", "ETH", "BNB");
+    private static final int MAX_DERIVED_ROUTES = 10_000;
+
+    private final WebClient webClient;
+    private final FinnhubRateGovernor rateGovernor;
+    private final String apiKey;
+    private final List<String> exchanges;
+    private final String defaultExchange;
+    private final Duration timeout;
+
+    private volatile Map<String, CryptoRoute> routes = Map.of();
+    private final ConcurrentMap<String, CryptoRoute> derivedRoutes = new ConcurrentHashMap<>();
+
+    public CryptoSymbolRegistry(
+            WebClient.Builder webClientBuilder,
+            FinnhubRateGovernor rateGovernor,
+            @Value("${finnhub.api.key:demo}") String apiKey,
+            @Value("${finnhub.api.base-url:https://finnhub.io/api/v1}") String baseUrl,
+            @Value("${finnhub.crypto.exchanges:binance}") List<String> exchanges,
+            @Value("${finnhub.crypto.default-exchange:BINANCE}") String defaultExchange,
+            @Value("${finnhub.crypto.symbols-timeout-ms:30000}") long timeoutMs) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.rateGovernor = rateGovernor;
+        this.apiKey = apiKey;
+        this.exchanges = exchanges;
+        this.defaultExchange = defaultExchange.toUpperCase();
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Route for a canonical or exchange-qualified symbol.
+     */
+    public CryptoRoute resolve(String symbol) {
+        String key = symbol.toUpperCase();
+        CryptoRoute route = routes.get(key);
+        if (route != null) {
+            return route;
+        }
+        route = derivedRoutes.get(key);
+        if (route != null) {
+            return route;
+        }
+        route = derive(key);
+        if (derivedRoutes.size() < MAX_DERIVED_ROUTES) {
+            derivedRoutes.put(key, route);
+        }
+        return route;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Reload symbol metadata; the current routes stay in place if loading fails.
+     */
+    @Scheduled(fixedDelayString = "${finnhub.crypto.symbols-refresh-ms:86400000}",
+            initialDelayString = "${finnhub.crypto.symbols-refresh-ms:86400000}")
+    public void refresh() {
+        if ("demo".equals(apiKey)) {
+            return;
+        }
+        Flux.fromIterable(exchanges)
+                .concatMap(exchange -> rateGovernor.acquire(RequestPriority.BACKGROUND)
+                        .thenMany(webClient.get()
+                                .uri(uriBuilder -> uriBuilder
+                                        .path("/crypto/symbol")
+                                        .queryParam("exchange", exchange)
+                                        .queryParam("token", apiKey)
+                                        .build())
+                                .retrieve()
+                                .bodyToFlux(FinnhubCryptoSymbol.class)
+                                .timeout(timeout)))
+                .collectList()
+                .subscribe(this::install,
+                        e -> log.warn("Failed to load crypto symbol metadata: {}", e.getMessage()));
+    }
+
+    private void install(List<FinnhubCryptoSymbol> symbols) {
+        Map<String, CryptoRoute> loaded = new HashMap<>(symbols.size() * 4);
+        for (FinnhubCryptoSymbol symbol : symbols) {
+            CryptoRoute route = toRoute(symbol);
+            if (route == null) {
+                continue;
+            }
+            // Exchanges are loaded in preference order, so the first listing of a pair wins
+            loaded.putIfAbsent(route.baseCurrency() + route.quoteCurrency(), route);
+            loaded.put(route.finnhubSymbol().toUpperCase(), route);
+        }
+        routes = Map.copyOf(loaded);
+        derivedRoutes.clear();
+        log.info("Loaded {} crypto symbols from {}", symbols.size(), exchanges);
+    }
+
+    private CryptoRoute toRoute(FinnhubCryptoSymbol symbol) {
+        if (symbol.symbol() == null || symbol.displaySymbol() == null) {
+            return null;
+        }
+        int colon = symbol.symbol().indexOf(':');
+        int slash = symbol.displaySymbol().indexOf('/');
+        if (colon < 0 || slash < 0) {
+            return null;
+        }
+        return new CryptoRoute(symbol.symbol(), symbol.symbol().substring(0, colon).toUpperCase(),
+                symbol.displaySymbol().substring(0, slash).toUpperCase(),
+                symbol.displaySymbol().substring(slash + 1).toUpperCase());
+    }
+
+    /**
+     * Route for a symbol without metadata: split off a known quote currency and use the default exchange.
+     */
+    private CryptoRoute derive(String symbol) {
+        int colon = symbol.indexOf(':');
+        String exchange = colon > 0 ? symbol.substring(0, colon) : defaultExchange;
+        String pair = symbol.substring(colon + 1);
+        String plain = pair.replace("-", "").replace("/", "").replace("_", "");
+        for (String quote : QUOTE_CURRENCIES) {
+            if (plain.length() > quote.length() && plain.endsWith(quote)) {
+                String base = plain.substring(0, plain.length() - quote.length());
+                return new CryptoRoute(exchange + ":" + (colon > 0 ? pair : plain), exchange, base, quote);
+            }
+        }
+        return new CryptoRoute(exchange + ":" + pair, exchange, plain, "USDT");
+    }
+
+}
@@ -7,131 +7,153 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Random;
 
 /**
  * Client for Finnhub API - provides stock and crypto data.
+ * Calls are non-blocking and return {@link Mono}; no thread waits on the HTTP round trip.
  * Includes circuit breaker and mock fallback for development.
+ * Every upstream call first takes a permit from the {@link FinnhubRateGovernor}.
  */
 @Component
 @Slf4j
 public class FinnhubClient {
 
     private final WebClient webClient;
+    private final FinnhubRateGovernor rateGovernor;
+    private final CryptoSymbolRegistry symbolRegistry;
     private final String apiKey;
+    private final Duration timeout;
     private final Random random = new Random();
 
     public FinnhubClient(
             WebClient.Builder webClientBuilder,
+            FinnhubRateGovernor rateGovernor,
+            CryptoSymbolRegistry symbolRegistry,
             @Value("${finnhub.api.key:demo}") String apiKey,
-            @Value("${finnhub.api.base-url:https://finnhub.io/api/v1}") String baseUrl) {
+            @Value("${finnhub.api.base-url:https://finnhub.io/api/v1}") String baseUrl,
+            @Value("${finnhub.api.timeout-ms:5000}") long timeoutMs) {
+        this.rateGovernor = rateGovernor;
+        this.symbolRegistry = symbolRegistry;
         this.apiKey = apiKey;
+        this.timeout = Duration.ofMillis(timeoutMs);
         this.webClient = webClientBuilder
                 .baseUrl(baseUrl)
                 .build();
     }
 
     @CircuitBreaker(name = "finnhub", fallbackMethod = "getStockQuoteFallback")
-    public StockQuoteResponse getStockQuote(String symbol) {
+    public Mono<StockQuoteResponse> getStockQuote(String symbol, RequestPriority priority) {
         if ("demo".equals(apiKey)) {
             log.info("Using mock data for stock {} (API key not configured)", symbol);
-            return generateMockStockQuote(symbol);
+            return Mono.fromSupplier(() -> generateMockStockQuote(symbol));
         }
 
         log.info("Fetching stock quote for {} from Finnhub", symbol);
-        try {
-            Map<String, Object> response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/quote")
-                            .queryParam("symbol", symbol)
-                            .queryParam("token", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            if (response == null || response.isEmpty()) {
-                return generateMockStockQuote(symbol);
-            }
-
-            return StockQuoteResponse.builder()
-                    .symbol(symbol)
-                    .currentPrice(getBigDecimal(response.get("c")))
-                    .highPrice(getBigDecimal(response.get("h")))
-                    .lowPrice(getBigDecimal(response.get("l")))
-                    .openPrice(getBigDecimal(response.get("o")))
-                    .previousClose(getBigDecimal(response.get("pc")))
-                    .change(getBigDecimal(response.get("d")))
-                    .percentChange(getBigDecimal(response.get("dp")))
-                    .timestamp(LocalDateTime.now())
-                    .source("FINNHUB")
-                    .build();
-        } catch (Exception e) {
-            log.error("Error fetching stock quote: {}", e.getMessage());
-            return generateMockStockQuote(symbol);
-        }
+        return fetchQuote(symbol, priority)
+                .map(response -> StockQuoteResponse.builder()
+                        .symbol(symbol)
+                        .currentPrice(orZero(response.current()))
+                        .highPrice(orZero(response.high()))
+                        .lowPrice(orZero(response.low()))
+                        .openPrice(orZero(response.open()))
+                        .previousClose(orZero(response.previousClose()))
+                        .change(orZero(response.change()))
+                        .percentChange(orZero(response.percentChange()))
+                        .timestamp(LocalDateTime.now())
+                        .source("FINNHUB")
+                        .build())
+                .switchIfEmpty(Mono.fromSupplier(() -> generateMockStockQuote(symbol)));
+    }
+
+    /**
+     * Shed calls are not upstream failures; surface them instead of serving mock data.
+     */
+    public Mono<StockQuoteResponse> getStockQuoteFallback(String symbol, RequestPriority priority,
+                                                          RateLimitExceededException e) {
+        return Mono.error(e);
+    }
+
+    /**
+     * Finnhub itself throttled the call; report it as rate limited rather than serving mock data.
+     */
+    public Mono<StockQuoteResponse> getStockQuoteFallback(String symbol, RequestPriority priority,
+                                                          WebClientResponseException.TooManyRequests e) {
+        return Mono.error(throttled(symbol));
     }
 
-    public StockQuoteResponse getStockQuoteFallback(String symbol, Throwable t) {
+    public Mono<StockQuoteResponse> getStockQuoteFallback(String symbol, RequestPriority priority, Throwable t) {
         log.warn("Finnhub circuit breaker open for stock {}: {}", symbol, t.getMessage());
-        return generateMockStockQuote(symbol);
+        return Mono.fromSupplier(() -> generateMockStockQuote(symbol));
     }
 
     @CircuitBreaker(name = "finnhub", fallbackMethod = "getCryptoQuoteFallback")
-    public CryptoQuoteResponse getCryptoQuote(String symbol) {
+    public Mono<CryptoQuoteResponse> getCryptoQuote(String symbol, RequestPriority priority) {
         if ("demo".equals(apiKey)) {
             log.info("Using mock data for crypto {} (API key not configured)", symbol);
-            return generateMockCryptoQuote(symbol);
+            return Mono.fromSupplier(() -> generateMockCryptoQuote(symbol));
         }
 
-        log.info("Fetching crypto quote for {} from Finnhub", symbol);
-        try {
-            // Finnhub uses BINANCE:BTCUSDT format for crypto
-            String exchange = "BINANCE";
-            String finnhubSymbol = exchange + ":" + symbol;
-            
-            Map<String, Object> response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/quote")
-                            .queryParam("symbol", finnhubSymbol)
-                            .queryParam("token", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            if (response == null || response.isEmpty()) {
-                return generateMockCryptoQuote(symbol);
-            }
-
-            String base = symbol.length() > 4 ? symbol.substring(0, symbol.length() - 4) : symbol;
-            String quote = symbol.length() > 4 ? symbol.substring(symbol.length() - 4) : "USDT";
-
-            return CryptoQuoteResponse.builder()
-                    .symbol(symbol)
-                    .baseCurrency(base)
-                    .quoteCurrency(quote)
-                    .price(getBigDecimal(response.get("c")))
-                    .high24h(getBigDecimal(response.get("h")))
-                    .low24h(getBigDecimal(response.get("l")))
-                    .percentChange24h(getBigDecimal(response.get("dp")))
-                    .timestamp(LocalDateTime.now())
-                    .source("FINNHUB")
-                    .build();
-        } catch (Exception e) {
-            log.error("Error fetching crypto quote: {}", e.getMessage());
-            return generateMockCryptoQuote(symbol);
-        }
+        CryptoRoute route = symbolRegistry.resolve(symbol);
+        log.info("Fetching crypto quote for {} from Finnhub ({})", symbol, route.finnhubSymbol());
+        return fetchQuote(route.finnhubSymbol(), priority)
+                .map(response -> CryptoQuoteResponse.builder()
+                        .symbol(symbol)
+                        .baseCurrency(route.baseCurrency())
+                        .quoteCurrency(route.quoteCurrency())
+                        .price(orZero(response.current()))
+                        .high24h(orZero(response.high()))
+                        .low24h(orZero(response.low()))
+                        .percentChange24h(orZero(response.percentChange()))
+                        .timestamp(LocalDateTime.now())
+                        .source("FINNHUB")
+                        .build())
+                .switchIfEmpty(Mono.fromSupplier(() -> generateMockCryptoQuote(symbol)));
+    }
+
+    public Mono<CryptoQuoteResponse> getCryptoQuoteFallback(String symbol, RequestPriority priority,
+                                                            RateLimitExceededException e) {
+        return Mono.error(e);
     }
 
-    public CryptoQuoteResponse getCryptoQuoteFallback(String symbol, Throwable t) {
+    public Mono<CryptoQuoteResponse> getCryptoQuoteFallback(String symbol, RequestPriority priority,
+                                                            WebClientResponseException.TooManyRequests e) {
+        return Mono.error(throttled(symbol));
+    }
+
+    public Mono<CryptoQuoteResponse> getCryptoQuoteFallback(String symbol, RequestPriority priority, Throwable t) {
         log.warn("Finnhub circuit breaker open for crypto {}: {}", symbol, t.getMessage());
-        return generateMockCryptoQuote(symbol);
+        return Mono.fromSupplier(() -> generateMockCryptoQuote(symbol));
+    }
+
+    /**
+     * Call the quote endpoint without blocking once a rate permit is granted; errors propagate to the circuit breaker.
+     * A 429 from Finnhub means the budget is out of step with the upstream limit, so the governor pauses.
+     */
+    private Mono<FinnhubQuote> fetchQuote(String finnhubSymbol, RequestPriority priority) {
+        return rateGovernor.acquire(priority).then(webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/quote")
+                        .queryParam("symbol", finnhubSymbol)
+                        .queryParam("token", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(FinnhubQuote.class)
+                .filter(response -> !response.isEmpty())
+                .timeout(timeout))
+                .doOnError(WebClientResponseException.TooManyRequests.class, e -> rateGovernor.onThrottled())
+                .doOnError(e -> log.error("Error fetching quote for {}: {}", finnhubSymbol, e.getMessage()));
+    }
+
+    private RateLimitExceededException throttled(String symbol) {
+        return new RateLimitExceededException("Finnhub rate limit exceeded for " + symbol);
     }
 
     private StockQuoteResponse generateMockStockQuote(String symbol) {
@@ -159,16 +181,15 @@ public class FinnhubClient {
     }
 
     private CryptoQuoteResponse generateMockCryptoQuote(String symbol) {
-        BigDecimal basePrice = getMockCryptoPrice(symbol);
+        CryptoRoute route = symbolRegistry.resolve(symbol);
+        BigDecimal basePrice = getMockCryptoPrice(route.baseCurrency());
         BigDecimal percentChange = BigDecimal.valueOf((random.nextDouble() - 0.5) * 10)
                 .setScale(2, RoundingMode.HALF_UP);
 
-        String base = symbol.replace("USDT", "").replace("USD", "");
-        
         return CryptoQuoteResponse.builder()
                 .symbol(symbol)
-                .baseCurrency(base)
-                .quoteCurrency("USD")
+                .baseCurrency(route.baseCurrency())
+                .quoteCurrency(route.quoteCurrency())
                 .price(basePrice)
                 .high24h(basePrice.multiply(BigDecimal.valueOf(1.05)))
                 .low24h(basePrice.multiply(BigDecimal.valueOf(0.95)))
@@ -193,8 +214,7 @@ public class FinnhubClient {
         };
     }
 
-    private BigDecimal getMockCryptoPrice(String symbol) {
-        String base = symbol.replace("USDT", "").replace("USD", "").toUpperCase();
+    private BigDecimal getMockCryptoPrice(String base) {
         return switch (base) {
             case "BTC" -> BigDecimal.valueOf(43250.75);
             case "ETH" -> BigDecimal.valueOf(2285.50);
@@ -219,15 +239,7 @@ public class FinnhubClient {
         };
     }
 
-    private BigDecimal getBigDecimal(Object value) {
-        if (value == null) return BigDecimal.ZERO;
-        if (value instanceof Number) {
-            return BigDecimal.valueOf(((Number) value).doubleValue());
-        }
-        try {
-            return new BigDecimal(value.toString());
-        } catch (Exception e) {
-            return BigDecimal.ZERO;
-        }
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 }
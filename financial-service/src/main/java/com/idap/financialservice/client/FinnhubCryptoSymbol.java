@@ -0,0 +1,11 @@
+package com.idap.financialservice.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One entry of the Finnhub /crypto/symbol endpoint,
+ * e.g. symbol "BINANCE:BTCUSDT" with displaySymbol "BTC/USDT".
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FinnhubCryptoSymbol(String description, String displaySymbol, String symbol) {
+}
@@ -0,0 +1,30 @@
+package com.idap.financialservice.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Response of the Finnhub /quote endpoint.
+ * Numbers are bound straight from the JSON text into BigDecimal, so prices
+ * keep their exact decimal value and no intermediate map or boxed double is built.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FinnhubQuote(
+        @JsonProperty("c") BigDecimal current,
+        @JsonProperty("h") BigDecimal high,
+        @JsonProperty("l") BigDecimal low,
+        @JsonProperty("o") BigDecimal open,
+        @JsonProperty("pc") BigDecimal previousClose,
+        @JsonProperty("d") BigDecimal change,
+        @JsonProperty("dp") BigDecimal percentChange,
+        @JsonProperty("t") Long timestamp) {
+
+    /**
+     * Finnhub answers unknown symbols with an empty object.
+     */
+    public boolean isEmpty() {
+        return current == null;
+    }
+}
@@ -0,0 +1,298 @@
+package com.idap.financialservice.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shapes outbound Finnhub calls to a configured per-minute budget.
+ *
+ * The budget belongs to the API key, not to an instance, so permits come from a
+ * token bucket kept in Redis and shared by every instance; calls-per-minute is
+ * the cluster-wide budget. If Redis cannot be reached the governor falls back to
+ * a local bucket with the same budget, so a Redis outage degrades to a
+ * per-instance limit (and Finnhub 429s) rather than stopping all calls.
+ *
+ * Callers wait in one of two queues and every new permit goes to the oldest
+ * interactive caller before any background caller. Permits are taken from the
+ * bucket on the governor thread, never on the caller's. Waiting is bounded:
+ * callers are shed with {@link RateLimitExceededException} when their queue is
+ * full or their maximum wait passes, instead of sending a request Finnhub would
+ * reject with 429.
+ */
+@Component
+@Slf4j
+public class FinnhubRateGovernor {
+
+    /**
+     * Refill the shared bucket from the Redis clock and take up to ARGV[3] permits.
+     * Returns the permits taken and the milliseconds until the next permit when short.
+     */
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local rate = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or burst
+            local last = tonumber(state[2]) or now
+            tokens = math.min(burst, tokens + math.max(0, now - last) * rate)
+            local taken = math.min(requested, math.floor(tokens))
+            tokens = tokens - taken
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            local wait = 0
+            if taken < requested then
+                wait = math.ceil((1 - tokens) / rate)
+            end
+            return {taken, wait}
+            """, List.class);
+
+    /**
+     * Empty the shared bucket after Finnhub answered 429.
+     */
+    private static final RedisScript<Long> THROTTLE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('HSET', KEYS[1], 'tokens', '0', 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // How long to stay on the local bucket after Redis failed before trying it again
+    private static final long REDIS_RETRY_MS = 5000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final String bucketKey;
+    private final double permitsPerMilli;
+    private final double burst;
+    private final long bucketTtlMs;
+    private final int maxQueued;
+    private final long interactiveMaxWaitMs;
+    private final long backgroundMaxWaitMs;
+    private final MeterRegistry meterRegistry;
+
+    private final Deque<Waiter> interactive = new ArrayDeque<>();
+    private final Deque<Waiter> background = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "finnhub-rate-governor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Local bucket, used only while Redis is unreachable
+    private double tokens;
+    private long lastRefill = System.currentTimeMillis();
+    // Permits already taken from the bucket but not yet handed to a caller
+    private int spare;
+    private ScheduledFuture<?> pendingDrain;
+    private boolean redisAvailable = true;
+    private long redisRetryAt;
+
+    public FinnhubRateGovernor(
+            MeterRegistry meterRegistry,
+            StringRedisTemplate redisTemplate,
+            @Value("${finnhub.rate-limit.shared-key:finnhub:rate-limit}") String bucketKey,
+            @Value("${finnhub.rate-limit.calls-per-minute:60}") int callsPerMinute,
+            @Value("${finnhub.rate-limit.burst:10}") int burst,
+            @Value("${finnhub.rate-limit.max-queued:200}") int maxQueued,
+            @Value("${finnhub.rate-limit.interactive-max-wait-ms:2000}") long interactiveMaxWaitMs,
+            @Value("${finnhub.rate-limit.background-max-wait-ms:30000}") long backgroundMaxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.bucketKey = bucketKey;
+        this.permitsPerMilli = callsPerMinute / 60_000.0;
+        this.burst = burst;
+        this.tokens = burst;
+        // Past the time to refill completely the bucket is full anyway, so Redis may drop it
+        this.bucketTtlMs = (long) Math.ceil(burst / permitsPerMilli) + 1000;
+        this.maxQueued = maxQueued;
+        this.interactiveMaxWaitMs = interactiveMaxWaitMs;
+        this.backgroundMaxWaitMs = backgroundMaxWaitMs;
+        Gauge.builder("finnhub.rate-limit.queued", interactive, Deque::size)
+                .tag("priority", "interactive").register(meterRegistry);
+        Gauge.builder("finnhub.rate-limit.queued", background, Deque::size)
+                .tag("priority", "background").register(meterRegistry);
+    }
+
+    /**
+     * A caller waiting for a permit.
+     */
+    private record Waiter(MonoSink<Void> sink, RequestPriority priority, long deadline) {
+    }
+
+    /**
+     * Permits taken from a bucket, and how long to wait for the next one when short.
+     */
+    private record Permits(int taken, long waitMs) {
+    }
+
+    /**
+     * Completes once a permit is granted, or fails with {@link RateLimitExceededException} if shed.
+     */
+    public Mono<Void> acquire(RequestPriority priority) {
+        return Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                Deque<Waiter> queue = queue(priority);
+                if (queue.size() >= maxQueued) {
+                    shed(new Waiter(sink, priority, 0), "queue full");
+                    return;
+                }
+                long maxWait = priority == RequestPriority.INTERACTIVE ? interactiveMaxWaitMs : backgroundMaxWaitMs;
+                waiter = new Waiter(sink, priority, System.currentTimeMillis() + maxWait);
+                queue.addLast(waiter);
+                scheduleDrain(0);
+            }
+            sink.onCancel(() -> {
+                synchronized (this) {
+                    queue(priority).remove(waiter);
+                }
+            });
+        });
+    }
+
+    /**
+     * Finnhub rejected a call with 429: spend the remaining permits so callers wait for the budget to refill.
+     */
+    public void onThrottled() {
+        synchronized (this) {
+            refill();
+            tokens = Math.min(tokens, 0);
+            spare = 0;
+        }
+        scheduler.execute(() -> {
+            try {
+                redisTemplate.execute(THROTTLE_SCRIPT, List.of(bucketKey), String.valueOf(bucketTtlMs));
+            } catch (Exception e) {
+                log.warn("Failed to pause the shared Finnhub budget: {}", e.getMessage());
+            }
+        });
+        log.warn("Finnhub rate limit hit, pausing outbound calls until the budget refills");
+    }
+
+    private void drain() {
+        List<Waiter> expired = new ArrayList<>();
+        int wanted;
+        synchronized (this) {
+            pendingDrain = null;
+            long now = System.currentTimeMillis();
+            collectExpired(interactive, now, expired);
+            collectExpired(background, now, expired);
+            wanted = interactive.size() + background.size() - spare;
+        }
+        expired.forEach(waiter -> shed(waiter, "maximum wait exceeded"));
+
+        Permits permits = wanted > 0 ? take(wanted) : new Permits(0, 0);
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            spare += permits.taken();
+            while (spare > 0 && (!interactive.isEmpty() || !background.isEmpty())) {
+                spare--;
+                granted.add(!interactive.isEmpty() ? interactive.pollFirst() : background.pollFirst());
+            }
+            if (!interactive.isEmpty() || !background.isEmpty()) {
+                scheduleDrain(Math.max(1, permits.waitMs()));
+            }
+        }
+        granted.forEach(waiter -> grant(waiter.priority(), waiter.sink()));
+    }
+
+    /**
+     * Take up to the given number of permits from the shared bucket, or from the local one without Redis.
+     */
+    @SuppressWarnings("unchecked")
+    private Permits take(int wanted) {
+        if (redisAvailable || System.currentTimeMillis() >= redisRetryAt) {
+            try {
+                List<Long> result = redisTemplate.execute(TAKE_SCRIPT, List.of(bucketKey),
+                        String.valueOf(permitsPerMilli), String.valueOf(burst), String.valueOf(wanted),
+                        String.valueOf(bucketTtlMs));
+                if (!redisAvailable) {
+                    redisAvailable = true;
+                    log.info("Shared Finnhub budget reachable again");
+                }
+                return new Permits(result.get(0).intValue(), result.get(1));
+            } catch (Exception e) {
+                if (redisAvailable) {
+                    redisAvailable = false;
+                    log.warn("Shared Finnhub budget unavailable, using the local budget: {}", e.getMessage());
+                }
+                redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_MS;
+            }
+        }
+        synchronized (this) {
+            refill();
+            int taken = (int) Math.min(wanted, Math.floor(tokens));
+            tokens -= taken;
+            long waitMs = taken < wanted ? (long) Math.ceil((1 - tokens) / permitsPerMilli) : 0;
+            return new Permits(taken, waitMs);
+        }
+    }
+
+    private void collectExpired(Deque<Waiter> queue, long now, List<Waiter> expired) {
+        queue.removeIf(waiter -> {
+            if (waiter.deadline() <= now) {
+                expired.add(waiter);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Run the next drain after the given delay unless one is already pending; caller holds the lock.
+     */
+    private void scheduleDrain(long delayMs) {
+        if (pendingDrain != null) {
+            return;
+        }
+        pendingDrain = scheduler.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refill() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerMilli);
+        lastRefill = now;
+    }
+
+    private Deque<Waiter> queue(RequestPriority priority) {
+        return priority == RequestPriority.INTERACTIVE ? interactive : background;
+    }
+
+    private void grant(RequestPriority priority, MonoSink<Void> sink) {
+        meterRegistry.counter("finnhub.rate-limit", "priority", priority.name().toLowerCase(), "result", "granted")
+                .increment();
+        sink.success();
+    }
+
+    private void shed(Waiter waiter, String reason) {
+        meterRegistry.counter("finnhub.rate-limit", "priority", waiter.priority().name().toLowerCase(), "result", "shed")
+                .increment();
+        waiter.sink().error(new RateLimitExceededException("Finnhub call budget exhausted (" + reason + ")"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+}
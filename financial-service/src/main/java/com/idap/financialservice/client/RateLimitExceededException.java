@@ -0,0 +1,11 @@
+package com.idap.financialservice.client;
+
+/**
+ * Thrown when a Finnhub call is shed because the outbound rate budget is exhausted.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
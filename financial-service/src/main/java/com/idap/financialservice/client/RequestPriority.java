@@ -0,0 +1,10 @@
+package com.idap.financialservice.client;
+
+/**
+ * Priority of an outbound Finnhub call.
+ * Interactive calls serve a waiting user and are granted upstream budget before background refreshes.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND
+}
@@ -0,0 +1,23 @@
+package com.idap.financialservice.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson configuration for Financial Service.
+ * Modules declared here are registered on the auto-configured ObjectMapper,
+ * which also backs the WebClient codecs used to decode Finnhub responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter/setter and constructor calls with generated lambdas.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
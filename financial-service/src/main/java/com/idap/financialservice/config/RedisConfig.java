@@ -1,13 +1,22 @@
 package com.idap.financialservice.config;
 
-import org.springframework.cache.CacheManager;
+import com.idap.cache.TwoTierCacheManager;
+import com.idap.financialservice.cache.MarketHoursTtlFunction;
+import com.idap.financialservice.service.ExchangeCalendar;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -16,22 +25,68 @@ import java.util.Map;
 @Configuration
 public class RedisConfig {
 
+    @Value("${spring.application.name:financial-service}")
+    private String applicationName;
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${cache.near.time-to-live-seconds:30}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${financial.market-hours.open-ttl-seconds:300}")
+    private long stockOpenTtlSeconds;
+
+    @Value("${financial.market-hours.max-closed-ttl-hours:96}")
+    private long stockMaxClosedTtlHours;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                            ExchangeCalendar exchangeCalendar) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(5))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        // Stock quotes cache - 5 minutes
-        cacheConfigurations.put("stockQuotes", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+        // Stock quotes cache - 5 minutes while the exchange trades, until the next open while it is closed
+        cacheConfigurations.put("stockQuotes", defaultConfig.entryTtl(new MarketHoursTtlFunction(exchangeCalendar,
+                Duration.ofSeconds(stockOpenTtlSeconds), Duration.ofHours(stockMaxClosedTtlHours))));
         // Crypto quotes cache - 2 minutes (more volatile)
         cacheConfigurations.put("cryptoQuotes", defaultConfig.entryTtl(Duration.ofMinutes(2)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // In-process near cache in front of Redis, invalidated across instances via pub/sub
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate, meterRegistry,
+                "cache:invalidation:" + applicationName,
+                nearCacheMaximumSize, Duration.ofSeconds(nearCacheTtlSeconds));
+    }
+
+    /**
+     * Template for reading cache entries in bulk (MGET); uses the same value serializer as the caches.
+     */
+    @Bean
+    public RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getInvalidationChannel()));
+        return container;
     }
 }
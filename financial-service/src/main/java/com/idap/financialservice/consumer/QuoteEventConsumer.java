@@ -0,0 +1,47 @@
+package com.idap.financialservice.consumer;
+
+import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.StockQuoteResponse;
+import com.idap.financialservice.service.QuoteEventMapper;
+import com.idap.financialservice.service.QuoteStreamHub;
+import com.idap.financialservice.service.TickStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds quote events into the stream hub and the in-memory tick store.
+ * Every instance uses its own consumer group, named after its instance id, so it
+ * sees all quote events wherever they were produced and rejoins the same group on restart. Events arrive as JSON DTOs or Avro records,
+ * depending on the producer's encoding.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteEventConsumer {
+
+    private final QuoteStreamHub hub;
+    private final TickStore tickStore;
+    private final QuoteEventMapper quoteEventMapper;
+
+    @KafkaListener(topics = "financial.stock.updated",
+            groupId = "${financial.stream.consumer-group}",
+            properties = "auto.offset.reset=latest")
+    public void consumeStockEvent(Object payload) {
+        StockQuoteResponse quote = quoteEventMapper.fromStockEvent(payload);
+        log.debug("Streaming stock event: {}", quote.getSymbol());
+        tickStore.recordStock(quote);
+        hub.publish(QuoteStreamHub.QuoteType.STOCK, quote.getSymbol(), quote);
+    }
+
+    @KafkaListener(topics = "financial.crypto.updated",
+            groupId = "${financial.stream.consumer-group}",
+            properties = "auto.offset.reset=latest")
+    public void consumeCryptoEvent(Object payload) {
+        CryptoQuoteResponse quote = quoteEventMapper.fromCryptoEvent(payload);
+        log.debug("Streaming crypto event: {}", quote.getSymbol());
+        tickStore.recordCrypto(quote);
+        hub.publish(QuoteStreamHub.QuoteType.CRYPTO, quote.getSymbol(), quote);
+    }
+}
@@ -2,16 +2,34 @@ package com.idap.financialservice.controller;
 
 import com.idap.financialservice.dto.StockQuoteResponse;
 import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.HistoryPageResponse;
+import com.idap.financialservice.dto.IndicatorResponse;
+import com.idap.financialservice.model.AssetType;
+import com.idap.financialservice.model.CandleInterval;
 import com.idap.financialservice.service.FinancialService;
+import com.idap.financialservice.service.IndicatorEngine;
+import com.idap.financialservice.service.QuoteStreamHub;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * REST Controller for financial data endpoints.
+ * Quote endpoints return {@link Mono}, so the servlet thread is released while the quote is fetched.
+ * Stream endpoints return an {@link SseEmitter} with their own timeout, so only they stay open indefinitely.
  */
 @RestController
 @RequestMapping("/api")
@@ -19,28 +37,90 @@ import java.util.List;
 @Slf4j
 public class FinancialController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final FinancialService financialService;
+    private final QuoteStreamHub quoteStreamHub;
+    private final IndicatorEngine indicatorEngine;
+
+    @Value("${financial.stream.timeout-ms:0}")
+    private long streamTimeoutMs;
 
     /**
      * Get current stock quote.
      * GET /api/stocks/{symbol}
      */
     @GetMapping("/stocks/{symbol}")
-    public ResponseEntity<StockQuoteResponse> getStockQuote(@PathVariable String symbol) {
+    public Mono<ResponseEntity<StockQuoteResponse>> getStockQuote(@PathVariable String symbol) {
         log.info("Request for stock quote: {}", symbol);
-        return ResponseEntity.ok(financialService.getStockQuote(symbol));
+        return financialService.getStockQuote(symbol).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Get current quotes for several stocks in one call.
+     * GET /api/stocks?symbols=AAPL,MSFT,...
+     */
+    @GetMapping("/stocks")
+    public Mono<ResponseEntity<List<StockQuoteResponse>>> getStockQuotes(@RequestParam List<String> symbols) {
+        log.info("Request for {} stock quotes", symbols.size());
+        return financialService.getStockQuotes(symbols).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream live stock quotes as server-sent events.
+     * GET /api/stocks/stream?symbols=AAPL,MSFT,...
+     */
+    @GetMapping(value = "/stocks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockQuotes(@RequestParam List<String> symbols) {
+        log.info("Stream request for {} stock symbols", symbols.size());
+        return toEmitter(quoteStreamHub.subscribe(QuoteStreamHub.QuoteType.STOCK, symbols));
     }
 
     /**
      * Get stock price history.
-     * GET /api/stocks/{symbol}/history?hours=24
+     * GET /api/stocks/{symbol}/history?hours=24&interval={raw|1m|5m|1h|1d}
+     * The raw interval returns every saved quote; the others return OHLCV candles.
      */
     @GetMapping("/stocks/{symbol}/history")
-    public ResponseEntity<List<StockQuoteResponse>> getStockHistory(
+    public ResponseEntity<List<?>> getStockHistory(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "raw") String interval) {
+        log.info("Request for stock history: {} (last {} hours, interval {})", symbol, hours, interval);
+        if ("raw".equalsIgnoreCase(interval)) {
+            return ResponseEntity.ok(financialService.getStockHistory(symbol, hours));
+        }
+        CandleInterval candleInterval = CandleInterval.fromCode(interval);
+        hours = Math.max(1, Math.min(candleInterval.getMaxHours(), hours));
+        return ResponseEntity.ok(financialService.getStockCandles(symbol, hours, candleInterval));
+    }
+
+    /**
+     * Browse stock history page by page, newest first.
+     * GET /api/stocks/{symbol}/history/page?size=100&cursor={nextCursor of the previous page}
+     */
+    @GetMapping("/stocks/{symbol}/history/page")
+    public ResponseEntity<HistoryPageResponse<StockQuoteResponse>> getStockHistoryPage(
             @PathVariable String symbol,
-            @RequestParam(defaultValue = "24") int hours) {
-        log.info("Request for stock history: {} (last {} hours)", symbol, hours);
-        return ResponseEntity.ok(financialService.getStockHistory(symbol, hours));
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Request for stock history page: {} (size {})", symbol, size);
+        size = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        return ResponseEntity.ok(financialService.getStockHistoryPage(symbol, size, cursor));
+    }
+
+    /**
+     * Get technical indicators (SMA, EMA, RSI, Bollinger bands, VWAP) for a stock.
+     * GET /api/stocks/{symbol}/indicators?window=20
+     */
+    @GetMapping("/stocks/{symbol}/indicators")
+    public ResponseEntity<IndicatorResponse> getStockIndicators(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "20") int window) {
+        log.info("Request for stock indicators: {} (window {})", symbol, window);
+        return indicatorEngine.get(AssetType.STOCK, symbol, window)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -48,20 +128,108 @@ public class FinancialController {
      * GET /api/crypto/{symbol}
      */
     @GetMapping("/crypto/{symbol}")
-    public ResponseEntity<CryptoQuoteResponse> getCryptoQuote(@PathVariable String symbol) {
+    public Mono<ResponseEntity<CryptoQuoteResponse>> getCryptoQuote(@PathVariable String symbol) {
         log.info("Request for crypto quote: {}", symbol);
-        return ResponseEntity.ok(financialService.getCryptoQuote(symbol));
+        return financialService.getCryptoQuote(symbol).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Get current quotes for several crypto pairs in one call.
+     * GET /api/crypto?symbols=BTCUSDT,ETHUSDT,...
+     */
+    @GetMapping("/crypto")
+    public Mono<ResponseEntity<List<CryptoQuoteResponse>>> getCryptoQuotes(@RequestParam List<String> symbols) {
+        log.info("Request for {} crypto quotes", symbols.size());
+        return financialService.getCryptoQuotes(symbols).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream live crypto quotes as server-sent events.
+     * GET /api/crypto/stream?symbols=BTCUSDT,ETHUSDT,...
+     */
+    @GetMapping(value = "/crypto/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCryptoQuotes(@RequestParam List<String> symbols) {
+        log.info("Stream request for {} crypto symbols", symbols.size());
+        return toEmitter(quoteStreamHub.subscribe(QuoteStreamHub.QuoteType.CRYPTO, symbols));
     }
 
     /**
      * Get crypto price history.
-     * GET /api/crypto/{symbol}/history?hours=24
+     * GET /api/crypto/{symbol}/history?hours=24&interval={raw|1m|5m|1h|1d}
+     * The raw interval returns every saved quote; the others return OHLCV candles.
      */
     @GetMapping("/crypto/{symbol}/history")
-    public ResponseEntity<List<CryptoQuoteResponse>> getCryptoHistory(
+    public ResponseEntity<List<?>> getCryptoHistory(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "raw") String interval) {
+        log.info("Request for crypto history: {} (last {} hours, interval {})", symbol, hours, interval);
+        if ("raw".equalsIgnoreCase(interval)) {
+            return ResponseEntity.ok(financialService.getCryptoHistory(symbol, hours));
+        }
+        CandleInterval candleInterval = CandleInterval.fromCode(interval);
+        hours = Math.max(1, Math.min(candleInterval.getMaxHours(), hours));
+        return ResponseEntity.ok(financialService.getCryptoCandles(symbol, hours, candleInterval));
+    }
+
+    /**
+     * Browse crypto history page by page, newest first.
+     * GET /api/crypto/{symbol}/history/page?size=100&cursor={nextCursor of the previous page}
+     */
+    @GetMapping("/crypto/{symbol}/history/page")
+    public ResponseEntity<HistoryPageResponse<CryptoQuoteResponse>> getCryptoHistoryPage(
             @PathVariable String symbol,
-            @RequestParam(defaultValue = "24") int hours) {
-        log.info("Request for crypto history: {} (last {} hours)", symbol, hours);
-        return ResponseEntity.ok(financialService.getCryptoHistory(symbol, hours));
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Request for crypto history page: {} (size {})", symbol, size);
+        size = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        return ResponseEntity.ok(financialService.getCryptoHistoryPage(symbol, size, cursor));
+    }
+
+    /**
+     * Get technical indicators (SMA, EMA, RSI, Bollinger bands, VWAP) for a crypto pair.
+     * GET /api/crypto/{symbol}/indicators?window=20
+     */
+    @GetMapping("/crypto/{symbol}/indicators")
+    public ResponseEntity<IndicatorResponse> getCryptoIndicators(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "20") int window) {
+        log.info("Request for crypto indicators: {} (window {})", symbol, window);
+        return indicatorEngine.get(AssetType.CRYPTO, symbol, window)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Relay a stream of events to an emitter with the stream timeout. Events are
+     * sent off the publishing thread so a slow client never blocks the quote feed.
+     */
+    private SseEmitter toEmitter(Flux<ServerSentEvent<Object>> events) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Disposable subscription = events
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, ServerSentEvent<Object> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.data() != null) {
+            builder.data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
     }
 }
@@ -0,0 +1,24 @@
+package com.idap.financialservice.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one OHLCV candle.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CandleResponse {
+    private String symbol;
+    private String interval;
+    private LocalDateTime bucketStart;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal volume;
+    private Long sampleCount;
+}
@@ -0,0 +1,18 @@
+package com.idap.financialservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * DTO for one page of quote history.
+ * nextCursor is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistoryPageResponse<T> {
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.idap.financialservice.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for technical indicators of one symbol over one window.
+ * Until the window has filled, averages cover the quotes seen so far and RSI is null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicatorResponse {
+    private String symbol;
+    private Integer window;
+    private Long samples;
+    private BigDecimal lastPrice;
+    private BigDecimal sma;
+    private BigDecimal ema;
+    private BigDecimal rsi;
+    private BigDecimal bollingerUpper;
+    private BigDecimal bollingerLower;
+    private BigDecimal vwap;
+    private LocalDateTime updatedAt;
+}
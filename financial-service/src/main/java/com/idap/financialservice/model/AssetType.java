@@ -0,0 +1,9 @@
+package com.idap.financialservice.model;
+
+/**
+ * Kind of instrument a quote or candle belongs to.
+ */
+public enum AssetType {
+    STOCK,
+    CRYPTO
+}
@@ -0,0 +1,57 @@
+package com.idap.financialservice.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Intervals of the OHLCV candles maintained for every symbol.
+ */
+public enum CandleInterval {
+
+    ONE_MINUTE("1m", Duration.ofMinutes(1), 24),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5), 24 * 7),
+    ONE_HOUR("1h", Duration.ofHours(1), 24 * 90),
+    ONE_DAY("1d", Duration.ofDays(1), 24 * 365 * 5);
+
+    private final String code;
+    private final Duration length;
+    private final int maxHours;
+
+    CandleInterval(String code, Duration length, int maxHours) {
+        this.code = code;
+        this.length = length;
+        this.maxHours = maxHours;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Longest history window (in hours) that may be requested at this interval.
+     */
+    public int getMaxHours() {
+        return maxHours;
+    }
+
+    /**
+     * Start of the candle that contains the given timestamp.
+     */
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+        long minutesIntoDay = Duration.between(day, timestamp).toMinutes();
+        long intervalMinutes = length.toMinutes();
+        return day.plusMinutes(minutesIntoDay - minutesIntoDay % intervalMinutes);
+    }
+
+    public static CandleInterval fromCode(String code) {
+        for (CandleInterval interval : values()) {
+            if (interval.code.equalsIgnoreCase(code)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported interval: " + code + " (use raw, 1m, 5m, 1h or 1d)");
+    }
+
+}
@@ -8,10 +8,11 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing cryptocurrency price data.
+ * The table is range-partitioned by day on recorded_at (see schema.sql).
  */
 @Entity
 @Table(name = "crypto_quotes", indexes = {
-    @Index(name = "idx_crypto_symbol", columnList = "symbol"),
+    @Index(name = "idx_crypto_symbol_recorded_at", columnList = "symbol, recorded_at"),
     @Index(name = "idx_crypto_recorded_at", columnList = "recorded_at")
 })
 @Data
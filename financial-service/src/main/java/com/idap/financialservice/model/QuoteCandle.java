@@ -0,0 +1,71 @@
+package com.idap.financialservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OHLCV candle for one symbol and interval.
+ * Rows are maintained incrementally as quotes are saved. The open and close
+ * times record which quote set the open and close price, so out-of-order
+ * updates still keep the first and last price of the candle.
+ */
+@Entity
+@Table(name = "quote_candles", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_candle_asset_symbol_interval_bucket",
+        columnNames = {"asset_type", "symbol", "candle_interval", "bucket_start"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteCandle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "asset_type", nullable = false, length = 10)
+    private AssetType assetType;
+
+    @Column(nullable = false, length = 20)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "candle_interval", nullable = false, length = 20)
+    private CandleInterval candleInterval;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "open_price", nullable = false, precision = 18, scale = 8)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", nullable = false, precision = 18, scale = 8)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", nullable = false, precision = 18, scale = 8)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", nullable = false, precision = 18, scale = 8)
+    private BigDecimal closePrice;
+
+    @Column(precision = 24, scale = 2)
+    private BigDecimal volume;
+
+    @Column(name = "open_time", nullable = false)
+    private LocalDateTime openTime;
+
+    @Column(name = "close_time", nullable = false)
+    private LocalDateTime closeTime;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
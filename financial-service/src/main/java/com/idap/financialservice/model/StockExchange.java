@@ -0,0 +1,57 @@
+package com.idap.financialservice.model;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Stock exchanges with their regular trading session, identified by symbol suffix.
+ * Symbols without a known suffix (AAPL, MSFT, ...) trade in the US.
+ * Lunch breaks and early closes are ignored.
+ */
+public enum StockExchange {
+
+    US(null, "America/New_York", LocalTime.of(9, 30), LocalTime.of(16, 0)),
+    TORONTO(".TO", "America/Toronto", LocalTime.of(9, 30), LocalTime.of(16, 0)),
+    LONDON(".L", "Europe/London", LocalTime.of(8, 0), LocalTime.of(16, 30)),
+    XETRA(".DE", "Europe/Berlin", LocalTime.of(9, 0), LocalTime.of(17, 30)),
+    PARIS(".PA", "Europe/Paris", LocalTime.of(9, 0), LocalTime.of(17, 30)),
+    TOKYO(".T", "Asia/Tokyo", LocalTime.of(9, 0), LocalTime.of(15, 0)),
+    HONG_KONG(".HK", "Asia/Hong_Kong", LocalTime.of(9, 30), LocalTime.of(16, 0));
+
+    private final String suffix;
+    private final ZoneId zone;
+    private final LocalTime open;
+    private final LocalTime close;
+
+    StockExchange(String suffix, String zone, LocalTime open, LocalTime close) {
+        this.suffix = suffix;
+        this.zone = ZoneId.of(zone);
+        this.open = open;
+        this.close = close;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public LocalTime getOpen() {
+        return open;
+    }
+
+    public LocalTime getClose() {
+        return close;
+    }
+
+    /**
+     * Exchange a symbol trades on, judged by its suffix.
+     */
+    public static StockExchange forSymbol(String symbol) {
+        String upper = symbol.toUpperCase();
+        for (StockExchange exchange : values()) {
+            if (exchange.suffix != null && upper.endsWith(exchange.suffix)) {
+                return exchange;
+            }
+        }
+        return US;
+    }
+}
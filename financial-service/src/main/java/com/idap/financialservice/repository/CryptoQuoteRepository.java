@@ -1,6 +1,7 @@
 package com.idap.financialservice.repository;
 
 import com.idap.financialservice.model.CryptoQuote;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -19,6 +20,18 @@ public interface CryptoQuoteRepository extends JpaRepository<CryptoQuote, Long>
     @Query("SELECT c FROM CryptoQuote c WHERE c.symbol = :symbol AND c.recordedAt >= :since ORDER BY c.recordedAt DESC")
     List<CryptoQuote> findBySymbolSince(String symbol, LocalDateTime since);
 
+    /**
+     * First page of a symbol's history, newest first.
+     */
+    List<CryptoQuote> findBySymbolOrderByRecordedAtDescIdDesc(String symbol, Limit limit);
+
+    /**
+     * Page of a symbol's history strictly older than the (recordedAt, id) cursor, newest first.
+     */
+    @Query("SELECT c FROM CryptoQuote c WHERE c.symbol = :symbol AND c.recordedAt <= :recordedAt "
+            + "AND (c.recordedAt < :recordedAt OR c.id < :id) ORDER BY c.recordedAt DESC, c.id DESC")
+    List<CryptoQuote> findPageBefore(String symbol, LocalDateTime recordedAt, Long id, Limit limit);
+
     @Query("SELECT DISTINCT c.symbol FROM CryptoQuote c")
     List<String> findAllSymbols();
 }
@@ -0,0 +1,35 @@
+package com.idap.financialservice.repository;
+
+import com.idap.financialservice.model.AssetType;
+import com.idap.financialservice.model.CandleInterval;
+import com.idap.financialservice.model.QuoteCandle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuoteCandleRepository extends JpaRepository<QuoteCandle, Long> {
+
+    List<QuoteCandle> findByAssetTypeAndSymbolAndCandleIntervalAndBucketStartGreaterThanEqualOrderByBucketStartDesc(
+            AssetType assetType, String symbol, CandleInterval candleInterval, LocalDateTime since);
+
+    List<QuoteCandle> findByCandleIntervalAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            CandleInterval candleInterval, LocalDateTime from, LocalDateTime before);
+
+    /**
+     * The latest perSymbol candles of every symbol that start in [since, before), oldest first.
+     */
+    @Query(value = "SELECT * FROM quote_candles WHERE id IN (SELECT id FROM ("
+        + "SELECT id, ROW_NUMBER() OVER (PARTITION BY asset_type, symbol ORDER BY bucket_start DESC) AS rn "
+        + "FROM quote_candles WHERE candle_interval = :candleInterval "
+        + "AND bucket_start >= :since AND bucket_start < :before) ranked WHERE rn <= :perSymbol) "
+        + "ORDER BY bucket_start", nativeQuery = true)
+    List<QuoteCandle> findLatestClosedCandles(@Param("candleInterval") String candleInterval,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("before") LocalDateTime before,
+                                              @Param("perSymbol") int perSymbol);
+}
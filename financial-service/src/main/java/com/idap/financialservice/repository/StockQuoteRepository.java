@@ -1,6 +1,7 @@
 package com.idap.financialservice.repository;
 
 import com.idap.financialservice.model.StockQuote;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -19,6 +20,18 @@ public interface StockQuoteRepository extends JpaRepository<StockQuote, Long> {
     @Query("SELECT s FROM StockQuote s WHERE s.symbol = :symbol AND s.recordedAt >= :since ORDER BY s.recordedAt DESC")
     List<StockQuote> findBySymbolSince(String symbol, LocalDateTime since);
 
+    /**
+     * First page of a symbol's history, newest first.
+     */
+    List<StockQuote> findBySymbolOrderByRecordedAtDescIdDesc(String symbol, Limit limit);
+
+    /**
+     * Page of a symbol's history strictly older than the (recordedAt, id) cursor, newest first.
+     */
+    @Query("SELECT s FROM StockQuote s WHERE s.symbol = :symbol AND s.recordedAt <= :recordedAt "
+            + "AND (s.recordedAt < :recordedAt OR s.id < :id) ORDER BY s.recordedAt DESC, s.id DESC")
+    List<StockQuote> findPageBefore(String symbol, LocalDateTime recordedAt, Long id, Limit limit);
+
     @Query("SELECT DISTINCT s.symbol FROM StockQuote s")
     List<String> findAllSymbols();
 }
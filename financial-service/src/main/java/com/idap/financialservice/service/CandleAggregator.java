@@ -0,0 +1,138 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.model.AssetType;
+import com.idap.financialservice.model.CandleInterval;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintains the quote_candles table.
+ * Saved quotes are folded into per-candle deltas in memory and merged into the
+ * table with one batched upsert. Volume is the latest volume reported within
+ * the candle, because quotes carry running session (stocks) or 24h (crypto) volumes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CandleAggregator {
+
+    // MySQL applies assignments left to right, so prices are compared against the stored times before they move
+    private static final String UPSERT_SQL = """
+        INSERT INTO quote_candles (asset_type, symbol, candle_interval, bucket_start,
+            open_price, high_price, low_price, close_price, volume, open_time, close_time, sample_count, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) AS new
+        ON DUPLICATE KEY UPDATE
+            open_price = IF(new.open_time < quote_candles.open_time, new.open_price, quote_candles.open_price),
+            open_time = LEAST(quote_candles.open_time, new.open_time),
+            close_price = IF(new.close_time >= quote_candles.close_time, new.close_price, quote_candles.close_price),
+            volume = IF(new.close_time >= quote_candles.close_time, COALESCE(new.volume, quote_candles.volume),
+                quote_candles.volume),
+            close_time = GREATEST(quote_candles.close_time, new.close_time),
+            high_price = GREATEST(quote_candles.high_price, new.high_price),
+            low_price = LEAST(quote_candles.low_price, new.low_price),
+            sample_count = quote_candles.sample_count + new.sample_count,
+            updated_at = new.updated_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One saved quote: the traded price and the volume reported with it.
+     */
+    public record Tick(String symbol, BigDecimal price, BigDecimal volume, LocalDateTime timestamp) {
+    }
+
+    /**
+     * Fold saved quotes into every candle interval.
+     */
+    public void apply(AssetType assetType, List<Tick> ticks) {
+        Map<String, Candle> candles = new LinkedHashMap<>();
+        for (Tick tick : ticks) {
+            if (tick.price() == null || tick.timestamp() == null) {
+                continue;
+            }
+            for (CandleInterval interval : CandleInterval.values()) {
+                LocalDateTime bucketStart = interval.bucketStart(tick.timestamp());
+                candles.computeIfAbsent(tick.symbol() + '|' + interval + '|' + bucketStart,
+                                k -> new Candle(tick.symbol(), interval, bucketStart))
+                        .add(tick);
+            }
+        }
+        if (candles.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(candles.values()), candles.size(), (ps, candle) -> {
+                ps.setString(1, assetType.name());
+                ps.setString(2, candle.symbol);
+                ps.setString(3, candle.interval.name());
+                ps.setTimestamp(4, Timestamp.valueOf(candle.bucketStart));
+                ps.setBigDecimal(5, candle.open);
+                ps.setBigDecimal(6, candle.high);
+                ps.setBigDecimal(7, candle.low);
+                ps.setBigDecimal(8, candle.close);
+                ps.setBigDecimal(9, candle.volume);
+                ps.setTimestamp(10, Timestamp.valueOf(candle.openTime));
+                ps.setTimestamp(11, Timestamp.valueOf(candle.closeTime));
+                ps.setLong(12, candle.count);
+                ps.setTimestamp(13, Timestamp.valueOf(now));
+            });
+        } catch (Exception e) {
+            log.error("Failed to update {} {} candles: {}", candles.size(), assetType, e.getMessage());
+        }
+    }
+
+    /**
+     * Candle delta built from the ticks of one batch.
+     */
+    private static final class Candle {
+        private final String symbol;
+        private final CandleInterval interval;
+        private final LocalDateTime bucketStart;
+
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+        private BigDecimal volume;
+        private LocalDateTime openTime;
+        private LocalDateTime closeTime;
+        private long count;
+
+        private Candle(String symbol, CandleInterval interval, LocalDateTime bucketStart) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.bucketStart = bucketStart;
+        }
+
+        private void add(Tick tick) {
+            count++;
+            if (openTime == null || tick.timestamp().isBefore(openTime)) {
+                open = tick.price();
+                openTime = tick.timestamp();
+            }
+            if (closeTime == null || !tick.timestamp().isBefore(closeTime)) {
+                close = tick.price();
+                closeTime = tick.timestamp();
+                if (tick.volume() != null) {
+                    volume = tick.volume();
+                }
+            }
+            high = high == null ? tick.price() : high.max(tick.price());
+            low = low == null ? tick.price() : low.min(tick.price());
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.model.StockExchange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trading calendar of the supported stock exchanges.
+ * An exchange trades on weekdays between its open and close, except on its holidays.
+ *
+ * Holidays are read at startup from one file per exchange, named after the
+ * exchange (US.txt, LONDON.txt, ...) under financial.market-hours.holidays-location,
+ * with one yyyy-MM-dd per line. The bundled files can be replaced by a maintained
+ * directory (e.g. file:/etc/idap/holidays/) without a rebuild. An exchange without
+ * holidays for the current year is logged at startup, since it would otherwise be
+ * treated as open on every weekday.
+ */
+@Component
+@Slf4j
+public class ExchangeCalendar {
+
+    // Longest run of non-trading days we look across, e.g. a holiday week plus weekends
+    private static final int MAX_DAYS_AHEAD = 14;
+
+    private final Map<StockExchange, Set<LocalDate>> holidays = new EnumMap<>(StockExchange.class);
+
+    public ExchangeCalendar(
+            ResourceLoader resourceLoader,
+            @Value("${financial.market-hours.holidays-location:classpath:holidays/}") String holidaysLocation) {
+        String location = holidaysLocation.endsWith("/") ? holidaysLocation : holidaysLocation + "/";
+        for (StockExchange exchange : StockExchange.values()) {
+            Set<LocalDate> days = load(resourceLoader.getResource(location + exchange.name() + ".txt"));
+            this.holidays.put(exchange, days);
+
+            int year = LocalDate.now(exchange.getZone()).getYear();
+            if (days.stream().noneMatch(day -> day.getYear() == year)) {
+                log.warn("No {} holidays for {} in {}{}.txt; the exchange is treated as open on every weekday",
+                        year, exchange, location, exchange.name());
+            }
+        }
+    }
+
+    private static Set<LocalDate> load(Resource resource) {
+        Set<LocalDate> days = new HashSet<>();
+        if (!resource.exists()) {
+            return days;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String date = line.split("\\s+", 2)[0];
+                try {
+                    days.add(LocalDate.parse(date));
+                } catch (DateTimeParseException e) {
+                    log.warn("Ignoring holiday '{}' in {}, expected yyyy-MM-dd", date, resource.getDescription());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read holidays from {}: {}", resource.getDescription(), e.getMessage());
+        }
+        return days;
+    }
+
+    /**
+     * Whether the symbol's exchange is in its regular session at the given instant.
+     */
+    public boolean isOpen(String symbol, Instant at) {
+        StockExchange exchange = StockExchange.forSymbol(symbol);
+        ZonedDateTime local = at.atZone(exchange.getZone());
+        return isTradingDay(exchange, local.toLocalDate())
+                && !local.toLocalTime().isBefore(exchange.getOpen())
+                && local.toLocalTime().isBefore(exchange.getClose());
+    }
+
+    /**
+     * Time from the given instant until the symbol's exchange next opens;
+     * zero while it is open.
+     */
+    public Duration untilNextOpen(String symbol, Instant at) {
+        if (isOpen(symbol, at)) {
+            return Duration.ZERO;
+        }
+        StockExchange exchange = StockExchange.forSymbol(symbol);
+        LocalDate day = at.atZone(exchange.getZone()).toLocalDate();
+        for (int i = 0; i <= MAX_DAYS_AHEAD; i++, day = day.plusDays(1)) {
+            ZonedDateTime open = day.atTime(exchange.getOpen()).atZone(exchange.getZone());
+            if (isTradingDay(exchange, day) && open.toInstant().isAfter(at)) {
+                return Duration.between(at, open.toInstant());
+            }
+        }
+        return Duration.ofDays(MAX_DAYS_AHEAD);
+    }
+
+    private boolean isTradingDay(StockExchange exchange, LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY
+                && !holidays.get(exchange).contains(day);
+    }
+
+}
@@ -1,20 +1,47 @@
 package com.idap.financialservice.service;
 
 import com.idap.financialservice.client.FinnhubClient;
+import com.idap.financialservice.client.RateLimitExceededException;
+import com.idap.financialservice.client.RequestPriority;
+import com.idap.financialservice.dto.CandleResponse;
+import com.idap.financialservice.dto.HistoryPageResponse;
 import com.idap.financialservice.dto.StockQuoteResponse;
 import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.model.AssetType;
+import com.idap.financialservice.model.CandleInterval;
+import com.idap.financialservice.model.QuoteCandle;
 import com.idap.financialservice.model.StockQuote;
 import com.idap.financialservice.model.CryptoQuote;
+import com.idap.financialservice.repository.QuoteCandleRepository;
 import com.idap.financialservice.repository.StockQuoteRepository;
 import com.idap.financialservice.repository.CryptoQuoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for financial data operations.
@@ -28,14 +55,202 @@ public class FinancialService {
     private final StockQuoteRepository stockQuoteRepository;
     private final CryptoQuoteRepository cryptoQuoteRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> cacheRedisTemplate;
+    private final QuoteBatchWriter quoteBatchWriter;
+    private final TickStore tickStore;
+    private final CandleAggregator candleAggregator;
+    private final QuoteCandleRepository quoteCandleRepository;
+    private final QuoteChangeDetector changeDetector;
+    private final QuoteEventMapper quoteEventMapper;
+
+    @Value("${financial.batch.max-symbols:50}")
+    private int batchMaxSymbols;
+
+    @Value("${financial.batch.max-concurrency:8}")
+    private int batchMaxConcurrency;
 
     private static final String STOCK_TOPIC = "financial.stock.updated";
     private static final String CRYPTO_TOPIC = "financial.crypto.updated";
+    private static final String STOCK_CACHE = "stockQuotes";
+    private static final String CRYPTO_CACHE = "cryptoQuotes";
+
+    /**
+     * Get the current stock quote.
+     * Served from the stockQuotes cache when present, otherwise fetched from Finnhub without
+     * blocking and then stored, cached and published. Blocking cache and database work runs
+     * on the bounded elastic scheduler, never on the request thread.
+     */
+    public Mono<StockQuoteResponse> getStockQuote(String symbol) {
+        String normalized = symbol.toUpperCase();
+        return readCache(STOCK_CACHE, normalized, StockQuoteResponse.class)
+                .switchIfEmpty(Mono.defer(() -> refreshStockQuote(normalized, RequestPriority.INTERACTIVE)));
+    }
+
+    /**
+     * Fetch a stock quote from Finnhub regardless of the cache, then cache it, and store and
+     * publish it if it changed since the last stored quote.
+     * The priority decides the quote's place in the Finnhub rate budget.
+     */
+    public Mono<StockQuoteResponse> refreshStockQuote(String symbol, RequestPriority priority) {
+        String normalized = symbol.toUpperCase();
+        return finnhubClient.getStockQuote(normalized, priority)
+                .flatMap(response -> Mono.fromCallable(() -> saveStockQuote(normalized, response))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Get the current crypto quote; see {@link #getStockQuote(String)}.
+     */
+    public Mono<CryptoQuoteResponse> getCryptoQuote(String symbol) {
+        String normalized = symbol.toUpperCase();
+        return readCache(CRYPTO_CACHE, normalized, CryptoQuoteResponse.class)
+                .switchIfEmpty(Mono.defer(() -> refreshCryptoQuote(normalized, RequestPriority.INTERACTIVE)));
+    }
+
+    /**
+     * Fetch a crypto quote from Finnhub regardless of the cache; see {@link #refreshStockQuote}.
+     */
+    public Mono<CryptoQuoteResponse> refreshCryptoQuote(String symbol, RequestPriority priority) {
+        String normalized = symbol.toUpperCase();
+        return finnhubClient.getCryptoQuote(normalized, priority)
+                .flatMap(response -> Mono.fromCallable(() -> saveCryptoQuote(normalized, response))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Get quotes for several stocks in one call; see {@link #getQuotes}.
+     */
+    public Mono<List<StockQuoteResponse>> getStockQuotes(List<String> symbols) {
+        return getQuotes(symbols, STOCK_CACHE, StockQuoteResponse.class,
+                symbol -> finnhubClient.getStockQuote(symbol, RequestPriority.INTERACTIVE), this::saveStockQuotes);
+    }
+
+    /**
+     * Get quotes for several crypto pairs in one call; see {@link #getQuotes}.
+     */
+    public Mono<List<CryptoQuoteResponse>> getCryptoQuotes(List<String> symbols) {
+        return getQuotes(symbols, CRYPTO_CACHE, CryptoQuoteResponse.class,
+                symbol -> finnhubClient.getCryptoQuote(symbol, RequestPriority.INTERACTIVE), this::saveCryptoQuotes);
+    }
+
+    /**
+     * Resolve cache hits with one Redis MGET, fetch the misses concurrently with bounded
+     * parallelism, then store all fetched quotes in one JDBC batch and publish them together.
+     * Quotes are returned in request order; symbols that could not be fetched are left out.
+     * If any symbol was shed by the rate governor the whole batch fails with
+     * {@link RateLimitExceededException} (429, like the single-symbol endpoints), after
+     * the quotes that were fetched have been stored and cached, so a retry is served from cache.
+     */
+    private <T> Mono<List<T>> getQuotes(List<String> symbols, String cacheName, Class<T> type,
+                                        Function<String, Mono<T>> fetcher, Consumer<Map<String, T>> saver) {
+        List<String> normalized = normalizeSymbols(symbols);
+        log.info("Batch quote request for {} symbols from {}", normalized.size(), cacheName);
+
+        return Mono.defer(() -> {
+            AtomicReference<RateLimitExceededException> shed = new AtomicReference<>();
+            return readCachedQuotes(cacheName, normalized, type)
+                    .flatMap(cached -> Flux.fromIterable(normalized)
+                            .filter(symbol -> !cached.containsKey(symbol))
+                            .flatMap(symbol -> fetcher.apply(symbol)
+                                    .map(quote -> Map.entry(symbol, quote))
+                                    .onErrorResume(e -> {
+                                        if (e instanceof RateLimitExceededException rateLimited) {
+                                            shed.compareAndSet(null, rateLimited);
+                                        }
+                                        log.warn("Batch fetch failed for {}: {}", symbol, e.getMessage());
+                                        return Mono.empty();
+                                    }), batchMaxConcurrency)
+                            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                            .flatMap(fetched -> Mono.fromRunnable(() -> saver.accept(fetched))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .thenReturn(fetched))
+                            .flatMap(fetched -> shed.get() != null ? Mono.error(shed.get()) : Mono.just(fetched))
+                            .map(fetched -> normalized.stream()
+                                    .map(symbol -> cached.containsKey(symbol) ? cached.get(symbol) : fetched.get(symbol))
+                                    .filter(Objects::nonNull)
+                                    .toList()));
+        });
+    }
+
+    private List<String> normalizeSymbols(List<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                normalized.add(symbol.trim().toUpperCase());
+            }
+        }
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        if (normalized.size() > batchMaxSymbols) {
+            throw new IllegalArgumentException("At most " + batchMaxSymbols + " symbols can be requested at once");
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Read all requested cache entries with one MGET; a failed read counts as all misses.
+     */
+    private <T> Mono<Map<String, T>> readCachedQuotes(String cacheName, List<String> symbols, Class<T> type) {
+        return Mono.fromCallable(() -> {
+                    List<Object> values = cacheRedisTemplate.opsForValue().multiGet(
+                            symbols.stream().map(symbol -> cacheName + "::" + symbol).toList());
+                    Map<String, T> cached = new HashMap<>();
+                    for (int i = 0; values != null && i < symbols.size(); i++) {
+                        if (type.isInstance(values.get(i))) {
+                            cached.put(symbols.get(i), type.cast(values.get(i)));
+                        }
+                    }
+                    return cached;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Batch cache read from {} failed, fetching all symbols: {}", cacheName, e.getMessage());
+                    return Mono.just(new HashMap<>());
+                });
+    }
+
+    private void saveStockQuotes(Map<String, StockQuoteResponse> quotes) {
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<StockQuoteResponse> changed = quotes.values().stream()
+                .filter(changeDetector::hasChanged)
+                .toList();
+        if (!changed.isEmpty()) {
+            quoteBatchWriter.insertStockQuotes(changed, recordedAt);
+            candleAggregator.apply(AssetType.STOCK, changed.stream()
+                    .filter(quote -> !isMock(quote.getSource()))
+                    .map(quote -> stockTick(quote, recordedAt))
+                    .toList());
+            changed.forEach(this::publishStockEvent);
+        }
+        quotes.forEach(this::cacheStockQuote);
+    }
+
+    private void saveCryptoQuotes(Map<String, CryptoQuoteResponse> quotes) {
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<CryptoQuoteResponse> changed = quotes.values().stream()
+                .filter(changeDetector::hasChanged)
+                .toList();
+        if (!changed.isEmpty()) {
+            quoteBatchWriter.insertCryptoQuotes(changed, recordedAt);
+            candleAggregator.apply(AssetType.CRYPTO, changed.stream()
+                    .filter(quote -> !isMock(quote.getSource()))
+                    .map(quote -> cryptoTick(quote, recordedAt))
+                    .toList());
+            changed.forEach(this::publishCryptoEvent);
+        }
+        quotes.forEach(this::cacheCryptoQuote);
+    }
 
-    @Cacheable(value = "stockQuotes", key = "#symbol", unless = "#result.source == 'MOCK'")
-    public StockQuoteResponse getStockQuote(String symbol) {
-        log.info("Getting stock quote for {}", symbol);
-        StockQuoteResponse response = finnhubClient.getStockQuote(symbol.toUpperCase());
+    private StockQuoteResponse saveStockQuote(String symbol, StockQuoteResponse response) {
+        if (!changeDetector.hasChanged(response)) {
+            log.debug("Stock quote for {} unchanged, refreshing cache only", symbol);
+            cacheStockQuote(symbol, response);
+            return response;
+        }
+        log.info("Storing stock quote for {}", symbol);
+        LocalDateTime recordedAt = LocalDateTime.now();
 
         // Save to database
         StockQuote entity = StockQuote.builder()
@@ -50,20 +265,34 @@ public class FinancialService {
                 .percentChange(response.getPercentChange())
                 .volume(response.getVolume())
                 .exchange(response.getExchange())
-                .recordedAt(LocalDateTime.now())
+                .recordedAt(recordedAt)
                 .build();
         stockQuoteRepository.save(entity);
+        if (!isMock(response.getSource())) {
+            candleAggregator.apply(AssetType.STOCK, List.of(stockTick(response, recordedAt)));
+        }
 
         // Publish event
         publishStockEvent(response);
 
+        cacheStockQuote(symbol, response);
         return response;
     }
 
-    @Cacheable(value = "cryptoQuotes", key = "#symbol", unless = "#result.source == 'MOCK'")
-    public CryptoQuoteResponse getCryptoQuote(String symbol) {
-        log.info("Getting crypto quote for {}", symbol);
-        CryptoQuoteResponse response = finnhubClient.getCryptoQuote(symbol.toUpperCase());
+    private void cacheStockQuote(String symbol, StockQuoteResponse response) {
+        if (!isMock(response.getSource())) {
+            writeCache(STOCK_CACHE, symbol, response);
+        }
+    }
+
+    private CryptoQuoteResponse saveCryptoQuote(String symbol, CryptoQuoteResponse response) {
+        if (!changeDetector.hasChanged(response)) {
+            log.debug("Crypto quote for {} unchanged, refreshing cache only", symbol);
+            cacheCryptoQuote(symbol, response);
+            return response;
+        }
+        log.info("Storing crypto quote for {}", symbol);
+        LocalDateTime recordedAt = LocalDateTime.now();
 
         // Save to database
         CryptoQuote entity = CryptoQuote.builder()
@@ -76,34 +305,178 @@ public class FinancialService {
                 .percentChange24h(response.getPercentChange24h())
                 .volume24h(response.getVolume24h())
                 .marketCap(response.getMarketCap())
-                .recordedAt(LocalDateTime.now())
+                .recordedAt(recordedAt)
                 .build();
         cryptoQuoteRepository.save(entity);
+        if (!isMock(response.getSource())) {
+            candleAggregator.apply(AssetType.CRYPTO, List.of(cryptoTick(response, recordedAt)));
+        }
 
         // Publish event
         publishCryptoEvent(response);
 
+        cacheCryptoQuote(symbol, response);
         return response;
     }
 
+    private void cacheCryptoQuote(String symbol, CryptoQuoteResponse response) {
+        if (!isMock(response.getSource())) {
+            writeCache(CRYPTO_CACHE, symbol, response);
+        }
+    }
+
+    /**
+     * Get stock history; recent windows are served from the in-memory tick store when it covers them.
+     */
     public List<StockQuoteResponse> getStockHistory(String symbol, int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        Optional<List<StockQuoteResponse>> recent = tickStore.stockHistory(symbol, since);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
         return stockQuoteRepository.findBySymbolSince(symbol.toUpperCase(), since).stream()
                 .map(this::mapToStockResponse)
                 .toList();
     }
 
+    /**
+     * Get crypto history; recent windows are served from the in-memory tick store when it covers them.
+     */
     public List<CryptoQuoteResponse> getCryptoHistory(String symbol, int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        Optional<List<CryptoQuoteResponse>> recent = tickStore.cryptoHistory(symbol, since);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
         return cryptoQuoteRepository.findBySymbolSince(symbol.toUpperCase(), since).stream()
                 .map(this::mapToCryptoResponse)
                 .toList();
     }
 
+    /**
+     * Get one page of stock history, newest first, continuing after the given cursor.
+     * Each page is a single index range scan on (symbol, recorded_at), however deep the page.
+     */
+    public HistoryPageResponse<StockQuoteResponse> getStockHistoryPage(String symbol, int size, String cursor) {
+        String normalized = symbol.toUpperCase();
+        Limit limit = Limit.of(size);
+        List<StockQuote> rows = cursor == null
+                ? stockQuoteRepository.findBySymbolOrderByRecordedAtDescIdDesc(normalized, limit)
+                : findPageBefore(cursor, (recordedAt, id) -> stockQuoteRepository.findPageBefore(
+                        normalized, recordedAt, id, limit));
+        String nextCursor = rows.size() < size ? null : nextCursor(rows.get(rows.size() - 1).getRecordedAt(),
+                rows.get(rows.size() - 1).getId());
+        return HistoryPageResponse.<StockQuoteResponse>builder()
+                .items(rows.stream().map(this::mapToStockResponse).toList())
+                .size(rows.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Get one page of crypto history; see {@link #getStockHistoryPage(String, int, String)}.
+     */
+    public HistoryPageResponse<CryptoQuoteResponse> getCryptoHistoryPage(String symbol, int size, String cursor) {
+        String normalized = symbol.toUpperCase();
+        Limit limit = Limit.of(size);
+        List<CryptoQuote> rows = cursor == null
+                ? cryptoQuoteRepository.findBySymbolOrderByRecordedAtDescIdDesc(normalized, limit)
+                : findPageBefore(cursor, (recordedAt, id) -> cryptoQuoteRepository.findPageBefore(
+                        normalized, recordedAt, id, limit));
+        String nextCursor = rows.size() < size ? null : nextCursor(rows.get(rows.size() - 1).getRecordedAt(),
+                rows.get(rows.size() - 1).getId());
+        return HistoryPageResponse.<CryptoQuoteResponse>builder()
+                .items(rows.stream().map(this::mapToCryptoResponse).toList())
+                .size(rows.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private <T> List<T> findPageBefore(String cursor, BiFunction<LocalDateTime, Long, List<T>> query) {
+        HistoryCursor position = HistoryCursor.decode(cursor);
+        return query.apply(position.recordedAt(), position.id());
+    }
+
+    private String nextCursor(LocalDateTime recordedAt, Long id) {
+        return new HistoryCursor(recordedAt, id).encode();
+    }
+
+    /**
+     * Get stock candles at the given interval, newest first.
+     */
+    public List<CandleResponse> getStockCandles(String symbol, int hours, CandleInterval interval) {
+        return getCandles(AssetType.STOCK, symbol, hours, interval);
+    }
+
+    /**
+     * Get crypto candles at the given interval, newest first.
+     */
+    public List<CandleResponse> getCryptoCandles(String symbol, int hours, CandleInterval interval) {
+        return getCandles(AssetType.CRYPTO, symbol, hours, interval);
+    }
+
+    private List<CandleResponse> getCandles(AssetType assetType, String symbol, int hours, CandleInterval interval) {
+        LocalDateTime since = interval.bucketStart(LocalDateTime.now().minusHours(hours));
+        return quoteCandleRepository
+                .findByAssetTypeAndSymbolAndCandleIntervalAndBucketStartGreaterThanEqualOrderByBucketStartDesc(
+                        assetType, symbol.toUpperCase(), interval, since)
+                .stream()
+                .map(this::mapToCandleResponse)
+                .toList();
+    }
+
+    private CandleAggregator.Tick stockTick(StockQuoteResponse quote, LocalDateTime recordedAt) {
+        return new CandleAggregator.Tick(quote.getSymbol(), quote.getCurrentPrice(),
+                quote.getVolume() != null ? BigDecimal.valueOf(quote.getVolume()) : null, recordedAt);
+    }
+
+    private CandleAggregator.Tick cryptoTick(CryptoQuoteResponse quote, LocalDateTime recordedAt) {
+        return new CandleAggregator.Tick(quote.getSymbol(), quote.getPrice(), quote.getVolume24h(), recordedAt);
+    }
+
+    private <T> Mono<T> readCache(String cacheName, String key, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> cache.get(key, type))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Failed to read {} from cache {}: {}", key, cacheName, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void writeCache(String cacheName, String key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.put(key, value);
+        } catch (Exception e) {
+            log.warn("Failed to write {} to cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    private boolean isMock(String source) {
+        return "MOCK".equals(source);
+    }
+
+    /**
+     * Publish a stored quote; it counts as emitted for change detection once the broker acknowledges it.
+     */
     private void publishStockEvent(StockQuoteResponse quote) {
         try {
-            kafkaTemplate.send(STOCK_TOPIC, quote.getSymbol(), quote);
-            log.debug("Published stock event for {}", quote.getSymbol());
+            kafkaTemplate.send(STOCK_TOPIC, quote.getSymbol(), quoteEventMapper.toStockEvent(quote))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish stock event for {}: {}", quote.getSymbol(), ex.getMessage());
+                        } else {
+                            changeDetector.markEmitted(quote);
+                            log.debug("Published stock event for {}", quote.getSymbol());
+                        }
+                    });
         } catch (Exception e) {
             log.error("Failed to publish stock event: {}", e.getMessage());
         }
@@ -111,8 +484,15 @@ public class FinancialService {
 
     private void publishCryptoEvent(CryptoQuoteResponse quote) {
         try {
-            kafkaTemplate.send(CRYPTO_TOPIC, quote.getSymbol(), quote);
-            log.debug("Published crypto event for {}", quote.getSymbol());
+            kafkaTemplate.send(CRYPTO_TOPIC, quote.getSymbol(), quoteEventMapper.toCryptoEvent(quote))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish crypto event for {}: {}", quote.getSymbol(), ex.getMessage());
+                        } else {
+                            changeDetector.markEmitted(quote);
+                            log.debug("Published crypto event for {}", quote.getSymbol());
+                        }
+                    });
         } catch (Exception e) {
             log.error("Failed to publish crypto event: {}", e.getMessage());
         }
@@ -136,6 +516,20 @@ public class FinancialService {
                 .build();
     }
 
+    private CandleResponse mapToCandleResponse(QuoteCandle candle) {
+        return CandleResponse.builder()
+                .symbol(candle.getSymbol())
+                .interval(candle.getCandleInterval().getCode())
+                .bucketStart(candle.getBucketStart())
+                .open(candle.getOpenPrice())
+                .high(candle.getHighPrice())
+                .low(candle.getLowPrice())
+                .close(candle.getClosePrice())
+                .volume(candle.getVolume())
+                .sampleCount(candle.getSampleCount())
+                .build();
+    }
+
     private CryptoQuoteResponse mapToCryptoResponse(CryptoQuote entity) {
         return CryptoQuoteResponse.builder()
                 .symbol(entity.getSymbol())
@@ -0,0 +1,285 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.dto.IndicatorResponse;
+import com.idap.financialservice.model.AssetType;
+import com.idap.financialservice.model.CandleInterval;
+import com.idap.financialservice.model.QuoteCandle;
+import com.idap.financialservice.repository.QuoteCandleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Incrementally maintained technical indicators per symbol and window.
+ *
+ * Indicators are computed over closed candles of the configured interval, read
+ * from quote_candles, so every instance sees the same series whichever instance
+ * fetched the quotes, and mock quotes (which never reach the candles) are left out.
+ * On startup the latest closed candles are loaded to warm the windows up; after
+ * that each newly closed candle is folded in once.
+ *
+ * Every candle updates a fixed-size state per configured window: a ring of the
+ * last closes and interval volumes with running sums for SMA, Bollinger bands and
+ * VWAP, a recursive EMA and Wilder-smoothed RSI. Updates cost O(1) per window and
+ * reads are O(1), whatever the window length; history is never rescanned.
+ * Candle volumes are the running volume reported by the quotes, so the interval
+ * volume is the difference to the previous candle; candles without one weigh 1
+ * in the VWAP, which then equals the SMA.
+ */
+@Component
+@Slf4j
+public class IndicatorEngine {
+
+    private static final int SCALE = 8;
+
+    // Quotes recorded just before a candle boundary may still be in flight
+    private static final long CLOSE_GRACE_SECONDS = 5;
+
+    private final QuoteCandleRepository quoteCandleRepository;
+    private final int[] windows;
+    private final double bollingerK;
+    private final CandleInterval interval;
+    private final long warmupHours;
+
+    private final ConcurrentMap<String, Series> stocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Series> cryptos = new ConcurrentHashMap<>();
+
+    // Candles starting before this have been folded in; null until warmed up
+    private LocalDateTime closedBefore;
+
+    public IndicatorEngine(
+            QuoteCandleRepository quoteCandleRepository,
+            @Value("${financial.indicators.windows:14,20,50}") List<Integer> windows,
+            @Value("${financial.indicators.bollinger-k:2.0}") double bollingerK,
+            @Value("${financial.indicators.interval:1m}") String interval,
+            @Value("${financial.indicators.warmup-hours:72}") long warmupHours) {
+        this.quoteCandleRepository = quoteCandleRepository;
+        this.windows = windows.stream().mapToInt(Integer::intValue).filter(w -> w > 1).distinct().sorted().toArray();
+        this.bollingerK = bollingerK;
+        this.interval = CandleInterval.fromCode(interval);
+        this.warmupHours = warmupHours;
+    }
+
+    /**
+     * Indicator state of one symbol, one entry per configured window.
+     */
+    private final class Series {
+        private final WindowState[] states = Arrays.stream(windows).mapToObj(WindowState::new)
+                .toArray(WindowState[]::new);
+        private LocalDateTime lastBucket;
+        private BigDecimal lastVolume;
+        private LocalDateTime updatedAt;
+    }
+
+    /**
+     * Fold in the candles closed since the last run; the first run warms up from the candle table.
+     */
+    @Scheduled(fixedDelayString = "${financial.indicators.poll-ms:10000}")
+    public void foldClosedCandles() {
+        LocalDateTime openBucket = interval.bucketStart(LocalDateTime.now().minusSeconds(CLOSE_GRACE_SECONDS));
+        if (closedBefore != null && !openBucket.isAfter(closedBefore)) {
+            return;
+        }
+        try {
+            List<QuoteCandle> candles;
+            if (closedBefore == null) {
+                candles = quoteCandleRepository.findLatestClosedCandles(interval.name(),
+                        openBucket.minusHours(warmupHours), openBucket, windows[windows.length - 1] + 1);
+                log.info("Warming up indicators from {} closed {} candles", candles.size(), interval.getCode());
+            } else {
+                candles = quoteCandleRepository.findByCandleIntervalAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        interval, closedBefore, openBucket);
+            }
+            candles.forEach(this::record);
+            closedBefore = openBucket;
+        } catch (Exception e) {
+            log.error("Failed to fold closed candles into indicators: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Current indicators for a symbol, or empty if no closed candle has been seen for it.
+     */
+    public Optional<IndicatorResponse> get(AssetType assetType, String symbol, int window) {
+        int index = Arrays.binarySearch(windows, window);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unsupported window " + window + ", expected one of "
+                    + Arrays.toString(windows));
+        }
+        Series series = (assetType == AssetType.STOCK ? stocks : cryptos).get(symbol.toUpperCase());
+        if (series == null) {
+            return Optional.empty();
+        }
+        synchronized (series) {
+            return Optional.of(series.states[index].toResponse(symbol.toUpperCase(), series.updatedAt));
+        }
+    }
+
+    private void record(QuoteCandle candle) {
+        BigDecimal price = candle.getClosePrice();
+        if (price == null || price.signum() <= 0) {
+            return;
+        }
+        ConcurrentMap<String, Series> store = candle.getAssetType() == AssetType.STOCK ? stocks : cryptos;
+        Series series = store.computeIfAbsent(candle.getSymbol().toUpperCase(), s -> new Series());
+        synchronized (series) {
+            if (series.lastBucket != null && !candle.getBucketStart().isAfter(series.lastBucket)) {
+                return;
+            }
+            BigDecimal volume = intervalVolume(series.lastVolume, candle.getVolume());
+            double weight = volume != null && volume.signum() > 0 ? volume.doubleValue() : 1;
+            for (WindowState state : series.states) {
+                state.add(price.doubleValue(), weight);
+            }
+            series.lastBucket = candle.getBucketStart();
+            series.lastVolume = candle.getVolume();
+            series.updatedAt = candle.getCloseTime();
+        }
+    }
+
+    /**
+     * Volume traded since the previous candle, or null when unknown (first candle, or the running volume reset).
+     */
+    private static BigDecimal intervalVolume(BigDecimal previous, BigDecimal current) {
+        if (previous == null || current == null || current.compareTo(previous) < 0) {
+            return null;
+        }
+        return current.subtract(previous);
+    }
+
+    /**
+     * Running state of the indicators over one window.
+     */
+    private final class WindowState {
+        private final int window;
+        private final double alpha;
+        private final double[] prices;
+        private final double[] weights;
+        private int next;
+        private long samples;
+
+        private double priceSum;
+        private double priceSquareSum;
+        private double weightedSum;
+        private double weightSum;
+
+        private double ema;
+        private double lastPrice = Double.NaN;
+        private long changes;
+        private double gainSum;
+        private double lossSum;
+        private double averageGain;
+        private double averageLoss;
+
+        private WindowState(int window) {
+            this.window = window;
+            this.alpha = 2.0 / (window + 1);
+            this.prices = new double[window];
+            this.weights = new double[window];
+        }
+
+        private void add(double price, double weight) {
+            if (samples >= window) {
+                double evicted = prices[next];
+                priceSum -= evicted;
+                priceSquareSum -= evicted * evicted;
+                weightedSum -= evicted * weights[next];
+                weightSum -= weights[next];
+            }
+            prices[next] = price;
+            weights[next] = weight;
+            priceSum += price;
+            priceSquareSum += price * price;
+            weightedSum += price * weight;
+            weightSum += weight;
+            next = (next + 1) % window;
+            samples++;
+            if (next == 0) {
+                resum();
+            }
+
+            // EMA is seeded with the SMA of the first window
+            ema = samples <= window ? priceSum / count() : ema + alpha * (price - ema);
+            updateRsi(price);
+        }
+
+        /**
+         * Wilder's smoothing: plain averages over the first window of changes, then recursive.
+         */
+        private void updateRsi(double price) {
+            if (!Double.isNaN(lastPrice)) {
+                double gain = Math.max(0, price - lastPrice);
+                double loss = Math.max(0, lastPrice - price);
+                changes++;
+                if (changes < window) {
+                    gainSum += gain;
+                    lossSum += loss;
+                } else if (changes == window) {
+                    averageGain = (gainSum + gain) / window;
+                    averageLoss = (lossSum + loss) / window;
+                } else {
+                    averageGain = (averageGain * (window - 1) + gain) / window;
+                    averageLoss = (averageLoss * (window - 1) + loss) / window;
+                }
+            }
+            lastPrice = price;
+        }
+
+        /**
+         * Recompute the running sums once per full turn of the ring, so floating-point drift
+         * cannot accumulate; amortised this is still O(1) per quote.
+         */
+        private void resum() {
+            priceSum = 0;
+            priceSquareSum = 0;
+            weightedSum = 0;
+            weightSum = 0;
+            for (int i = 0; i < window; i++) {
+                priceSum += prices[i];
+                priceSquareSum += prices[i] * prices[i];
+                weightedSum += prices[i] * weights[i];
+                weightSum += weights[i];
+            }
+        }
+
+        private int count() {
+            return (int) Math.min(samples, window);
+        }
+
+        private IndicatorResponse toResponse(String symbol, LocalDateTime updatedAt) {
+            int count = count();
+            double mean = priceSum / count;
+            double deviation = Math.sqrt(Math.max(0, priceSquareSum / count - mean * mean));
+            Double rsi = changes < window ? null
+                    : averageLoss == 0 ? 100.0 : 100 - 100 / (1 + averageGain / averageLoss);
+            return IndicatorResponse.builder()
+                    .symbol(symbol)
+                    .window(window)
+                    .samples(samples)
+                    .lastPrice(scaled(lastPrice))
+                    .sma(scaled(mean))
+                    .ema(scaled(ema))
+                    .rsi(rsi != null ? scaled(rsi) : null)
+                    .bollingerUpper(scaled(mean + bollingerK * deviation))
+                    .bollingerLower(scaled(mean - bollingerK * deviation))
+                    .vwap(scaled(weightedSum / weightSum))
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+
+    private static BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+}
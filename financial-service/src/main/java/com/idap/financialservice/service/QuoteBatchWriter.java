@@ -0,0 +1,80 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.StockQuoteResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts many quotes with a single JDBC batch.
+ * With rewriteBatchedStatements enabled on the MySQL URL the driver sends
+ * each batch as one multi-row INSERT.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteBatchWriter {
+
+    private static final String INSERT_STOCK_SQL = """
+        INSERT INTO stock_quotes (symbol, company_name, current_price, high_price, low_price, open_price,
+            previous_close, percent_change, price_change, volume, exchange, recorded_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_CRYPTO_SQL = """
+        INSERT INTO crypto_quotes (symbol, base_currency, quote_currency, price, high24h, low24h,
+            percent_change24h, volume24h, market_cap, recorded_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertStockQuotes(List<StockQuoteResponse> quotes, LocalDateTime recordedAt) {
+        if (quotes.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(recordedAt);
+        jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, quotes, quotes.size(), (ps, quote) -> {
+            ps.setString(1, quote.getSymbol());
+            ps.setString(2, quote.getCompanyName());
+            ps.setBigDecimal(3, quote.getCurrentPrice());
+            ps.setBigDecimal(4, quote.getHighPrice());
+            ps.setBigDecimal(5, quote.getLowPrice());
+            ps.setBigDecimal(6, quote.getOpenPrice());
+            ps.setBigDecimal(7, quote.getPreviousClose());
+            ps.setBigDecimal(8, quote.getPercentChange());
+            ps.setBigDecimal(9, quote.getChange());
+            ps.setObject(10, quote.getVolume());
+            ps.setString(11, quote.getExchange());
+            ps.setTimestamp(12, timestamp);
+        });
+        log.debug("Inserted batch of {} stock quotes", quotes.size());
+    }
+
+    public void insertCryptoQuotes(List<CryptoQuoteResponse> quotes, LocalDateTime recordedAt) {
+        if (quotes.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(recordedAt);
+        jdbcTemplate.batchUpdate(INSERT_CRYPTO_SQL, quotes, quotes.size(), (ps, quote) -> {
+            ps.setString(1, quote.getSymbol());
+            ps.setString(2, quote.getBaseCurrency());
+            ps.setString(3, quote.getQuoteCurrency());
+            ps.setBigDecimal(4, quote.getPrice());
+            ps.setBigDecimal(5, quote.getHigh24h());
+            ps.setBigDecimal(6, quote.getLow24h());
+            ps.setBigDecimal(7, quote.getPercentChange24h());
+            ps.setBigDecimal(8, quote.getVolume24h());
+            ps.setBigDecimal(9, quote.getMarketCap());
+            ps.setTimestamp(10, timestamp);
+        });
+        log.debug("Inserted batch of {} crypto quotes", quotes.size());
+    }
+
+}
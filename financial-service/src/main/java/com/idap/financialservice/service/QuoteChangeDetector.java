@@ -0,0 +1,134 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.StockQuoteResponse;
+import com.idap.financialservice.model.AssetType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Decides whether a fetched quote is worth storing and publishing.
+ *
+ * The last emitted quote of each symbol is kept in memory. A new quote is
+ * emitted when any of its price or volume fields moved by more than the
+ * relative epsilon since then, or when the heartbeat interval has passed so
+ * quiet symbols still get a periodic row and event. Unchanged quotes are
+ * compared against the last emitted one, so slow drift is not lost.
+ *
+ * Checking does not update the state: callers call {@link #markEmitted} once the
+ * quote has been stored and published, so a quote whose write or publish failed
+ * is emitted again on the next fetch instead of being treated as already sent.
+ * State is per instance; the first quote of a symbol after startup is always emitted.
+ * Snapshots expire shortly after the heartbeat interval, when they would force an
+ * emit anyway, and at most max-symbols are kept; a symbol whose snapshot was
+ * evicted is simply emitted again.
+ */
+@Component
+public class QuoteChangeDetector {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final BigDecimal epsilon;
+    private final long heartbeatMs;
+
+    private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(1);
+
+    private final Cache<String, Snapshot> lastEmitted;
+
+    public QuoteChangeDetector(
+            MeterRegistry meterRegistry,
+            @Value("${financial.change-detection.enabled:true}") boolean enabled,
+            @Value("${financial.change-detection.epsilon:0}") BigDecimal epsilon,
+            @Value("${financial.change-detection.heartbeat-seconds:300}") long heartbeatSeconds,
+            @Value("${financial.change-detection.max-symbols:10000}") long maxSymbols) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.epsilon = epsilon;
+        this.heartbeatMs = heartbeatSeconds * 1000;
+        this.lastEmitted = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(Duration.ofMillis(heartbeatMs).plus(EXPIRY_MARGIN))
+                .build();
+    }
+
+    /**
+     * Fields of the last emitted quote and when it was emitted.
+     */
+    private record Snapshot(BigDecimal[] fields, long emittedAt) {
+    }
+
+    public boolean hasChanged(StockQuoteResponse quote) {
+        return hasChanged(AssetType.STOCK, quote.getSymbol(), stockFields(quote));
+    }
+
+    public boolean hasChanged(CryptoQuoteResponse quote) {
+        return hasChanged(AssetType.CRYPTO, quote.getSymbol(), cryptoFields(quote));
+    }
+
+    /**
+     * Record a stock quote as the last one emitted for its symbol.
+     */
+    public void markEmitted(StockQuoteResponse quote) {
+        markEmitted(AssetType.STOCK, quote.getSymbol(), stockFields(quote));
+    }
+
+    /**
+     * Record a crypto quote as the last one emitted for its symbol.
+     */
+    public void markEmitted(CryptoQuoteResponse quote) {
+        markEmitted(AssetType.CRYPTO, quote.getSymbol(), cryptoFields(quote));
+    }
+
+    private BigDecimal[] stockFields(StockQuoteResponse quote) {
+        return new BigDecimal[] {quote.getCurrentPrice(), quote.getHighPrice(), quote.getLowPrice(),
+                quote.getOpenPrice(), quote.getPreviousClose(),
+                quote.getVolume() != null ? BigDecimal.valueOf(quote.getVolume()) : null};
+    }
+
+    private BigDecimal[] cryptoFields(CryptoQuoteResponse quote) {
+        return new BigDecimal[] {quote.getPrice(), quote.getHigh24h(), quote.getLow24h(), quote.getVolume24h()};
+    }
+
+    private boolean hasChanged(AssetType assetType, String symbol, BigDecimal[] fields) {
+        if (!enabled) {
+            return true;
+        }
+        Snapshot previous = lastEmitted.getIfPresent(assetType + ":" + symbol);
+        boolean changed = previous == null
+                || System.currentTimeMillis() - previous.emittedAt() >= heartbeatMs
+                || moved(previous.fields(), fields);
+        meterRegistry.counter("financial.quotes.change-detection",
+                "type", assetType.name().toLowerCase(), "result", changed ? "changed" : "unchanged").increment();
+        return changed;
+    }
+
+    private void markEmitted(AssetType assetType, String symbol, BigDecimal[] fields) {
+        if (enabled) {
+            lastEmitted.put(assetType + ":" + symbol, new Snapshot(fields, System.currentTimeMillis()));
+        }
+    }
+
+    private boolean moved(BigDecimal[] previous, BigDecimal[] current) {
+        for (int i = 0; i < current.length; i++) {
+            if (moved(previous[i], current[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean moved(BigDecimal previous, BigDecimal current) {
+        if (previous == null || current == null) {
+            return previous != current;
+        }
+        BigDecimal tolerance = previous.abs().multiply(epsilon);
+        return current.subtract(previous).abs().compareTo(tolerance) > 0;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.idap.financialservice.service;
+
+import com.idap.events.avro.CryptoQuoteUpdated;
+import com.idap.events.avro.StockQuoteUpdated;
+import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.StockQuoteResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maps quotes to and from their Kafka event payloads.
+ * With kafka.events.encoding=avro quotes are published as generated Avro records,
+ * otherwise as the JSON DTOs. Consumers accept both, so producers can switch at any time.
+ */
+@Component
+public class QuoteEventMapper {
+
+    // Decimal scales of the event schemas, matching the quote table columns
+    private static final int STOCK_PRICE_SCALE = 4;
+    private static final int STOCK_PERCENT_SCALE = 2;
+    private static final int CRYPTO_PRICE_SCALE = 8;
+    private static final int CRYPTO_PERCENT_SCALE = 4;
+    private static final int CRYPTO_AMOUNT_SCALE = 2;
+
+    private final boolean avro;
+
+    public QuoteEventMapper(@Value("${kafka.events.encoding:json}") String encoding) {
+        this.avro = "avro".equalsIgnoreCase(encoding);
+    }
+
+    public Object toStockEvent(StockQuoteResponse quote) {
+        if (!avro) {
+            return quote;
+        }
+        return StockQuoteUpdated.newBuilder()
+                .setSymbol(quote.getSymbol())
+                .setCompanyName(quote.getCompanyName())
+                .setCurrentPrice(scaled(quote.getCurrentPrice(), STOCK_PRICE_SCALE))
+                .setHighPrice(scaled(quote.getHighPrice(), STOCK_PRICE_SCALE))
+                .setLowPrice(scaled(quote.getLowPrice(), STOCK_PRICE_SCALE))
+                .setOpenPrice(scaled(quote.getOpenPrice(), STOCK_PRICE_SCALE))
+                .setPreviousClose(scaled(quote.getPreviousClose(), STOCK_PRICE_SCALE))
+                .setChange(scaled(quote.getChange(), STOCK_PRICE_SCALE))
+                .setPercentChange(scaled(quote.getPercentChange(), STOCK_PERCENT_SCALE))
+                .setVolume(quote.getVolume())
+                .setExchange(quote.getExchange())
+                .setTimestamp(quote.getTimestamp())
+                .setSource(quote.getSource())
+                .build();
+    }
+
+    public Object toCryptoEvent(CryptoQuoteResponse quote) {
+        if (!avro) {
+            return quote;
+        }
+        return CryptoQuoteUpdated.newBuilder()
+                .setSymbol(quote.getSymbol())
+                .setBaseCurrency(quote.getBaseCurrency())
+                .setQuoteCurrency(quote.getQuoteCurrency())
+                .setPrice(scaled(quote.getPrice(), CRYPTO_PRICE_SCALE))
+                .setHigh24h(scaled(quote.getHigh24h(), CRYPTO_PRICE_SCALE))
+                .setLow24h(scaled(quote.getLow24h(), CRYPTO_PRICE_SCALE))
+                .setPercentChange24h(scaled(quote.getPercentChange24h(), CRYPTO_PERCENT_SCALE))
+                .setVolume24h(scaled(quote.getVolume24h(), CRYPTO_AMOUNT_SCALE))
+                .setMarketCap(scaled(quote.getMarketCap(), CRYPTO_AMOUNT_SCALE))
+                .setTimestamp(quote.getTimestamp())
+                .setSource(quote.getSource())
+                .build();
+    }
+
+    public StockQuoteResponse fromStockEvent(Object payload) {
+        if (!(payload instanceof StockQuoteUpdated event)) {
+            return (StockQuoteResponse) payload;
+        }
+        return StockQuoteResponse.builder()
+                .symbol(event.getSymbol())
+                .companyName(event.getCompanyName())
+                .currentPrice(event.getCurrentPrice())
+                .highPrice(event.getHighPrice())
+                .lowPrice(event.getLowPrice())
+                .openPrice(event.getOpenPrice())
+                .previousClose(event.getPreviousClose())
+                .change(event.getChange())
+                .percentChange(event.getPercentChange())
+                .volume(event.getVolume())
+                .exchange(event.getExchange())
+                .timestamp(event.getTimestamp())
+                .source(event.getSource())
+                .build();
+    }
+
+    public CryptoQuoteResponse fromCryptoEvent(Object payload) {
+        if (!(payload instanceof CryptoQuoteUpdated event)) {
+            return (CryptoQuoteResponse) payload;
+        }
+        return CryptoQuoteResponse.builder()
+                .symbol(event.getSymbol())
+                .baseCurrency(event.getBaseCurrency())
+                .quoteCurrency(event.getQuoteCurrency())
+                .price(event.getPrice())
+                .high24h(event.getHigh24h())
+                .low24h(event.getLow24h())
+                .percentChange24h(event.getPercentChange24h())
+                .volume24h(event.getVolume24h())
+                .marketCap(event.getMarketCap())
+                .timestamp(event.getTimestamp())
+                .source(event.getSource())
+                .build();
+    }
+
+    /**
+     * Avro decimals are written at the schema's scale and reject any other.
+     */
+    private BigDecimal scaled(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP) : null;
+    }
+
+}
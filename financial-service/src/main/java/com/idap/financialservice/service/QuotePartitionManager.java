@@ -0,0 +1,166 @@
+package com.idap.financialservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the daily range partitions of the quote tables.
+ *
+ * Partitions are created a few days ahead by splitting the catch-all
+ * p_future partition, and partitions older than the retention period are
+ * dropped, which removes a whole day of rows without a DELETE. A Redis lock
+ * keeps instances from altering the tables concurrently.
+ *
+ * Tables created before partitioning was introduced (by Hibernate, with a
+ * primary key on id alone) are not touched by CREATE TABLE IF NOT EXISTS in
+ * schema.sql, so they are converted in place the first time they are found
+ * unpartitioned, keeping their rows.
+ */
+@Component
+@Slf4j
+public class QuotePartitionManager {
+
+    private static final List<String> TABLES = List.of("stock_quotes", "crypto_quotes");
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final String LOCK_KEY = "financial:partition-maintenance";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int daysAhead;
+    private final int retentionDays;
+
+    public QuotePartitionManager(
+            JdbcTemplate jdbcTemplate,
+            StringRedisTemplate redisTemplate,
+            @Value("${financial.partitions.enabled:true}") boolean enabled,
+            @Value("${financial.partitions.days-ahead:7}") int daysAhead,
+            @Value("${financial.partitions.retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${financial.partitions.cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        if (!enabled || !acquireLock()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String table : TABLES) {
+            try {
+                List<LocalDate> days = dailyPartitions(table);
+                if (days == null) {
+                    partitionTable(table);
+                    days = List.of();
+                }
+                createPartitions(table, days, today);
+                dropPartitions(table, days, today.minusDays(retentionDays));
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Days that currently have a partition, oldest first, or null if the table is not partitioned.
+     */
+    private List<LocalDate> dailyPartitions(String table) {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, String.class, table);
+        if (!names.contains(FUTURE_PARTITION)) {
+            return null;
+        }
+        return names.stream()
+                .filter(name -> !FUTURE_PARTITION.equals(name))
+                .map(name -> LocalDate.parse(name, PARTITION_NAME))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuild an unpartitioned table with the (id, recorded_at) primary key that MySQL requires
+     * for partitioning on recorded_at, and a single p_future partition holding all existing rows.
+     * Those rows move into the first daily partition created right after, and leave with it once
+     * it passes the retention period.
+     */
+    private void partitionTable(String table) {
+        log.info("Table {} is not partitioned, rebuilding it with daily partitions", table);
+        jdbcTemplate.execute("ALTER TABLE " + table
+                + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, recorded_at)"
+                + " PARTITION BY RANGE COLUMNS (recorded_at) ("
+                + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * Split p_future into one partition per day up to daysAhead days from today.
+     * New partitions can only follow the last existing one.
+     */
+    private void createPartitions(String table, List<LocalDate> existing, LocalDate today) {
+        LocalDate first = existing.isEmpty() ? today : existing.get(existing.size() - 1).plusDays(1);
+        LocalDate last = today.plusDays(daysAhead);
+        if (first.isAfter(last)) {
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            definitions.add("PARTITION " + PARTITION_NAME.format(day)
+                    + " VALUES LESS THAN ('" + day.plusDays(1) + "')");
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        log.info("Created {} daily partitions for {} ({} to {})", definitions.size() - 1, table, first, last);
+    }
+
+    /**
+     * Drop the partitions of days before the cutoff.
+     */
+    private void dropPartitions(String table, List<LocalDate> existing, LocalDate cutoff) {
+        List<String> expired = existing.stream()
+                .filter(day -> day.isBefore(cutoff))
+                .map(PARTITION_NAME::format)
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped {} expired partitions of {} (before {})", expired.size(), table, cutoff);
+    }
+
+    private boolean acquireLock() {
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMinutes(10));
+            return Boolean.TRUE.equals(acquired);
+        } catch (Exception e) {
+            log.warn("Could not acquire partition maintenance lock: {}", e.getMessage());
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.idap.financialservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub for streaming quotes to subscribers.
+ *
+ * Each watched symbol has one channel that every subscriber of that symbol
+ * shares, so a quote update is delivered to all of them from a single event.
+ * Every subscriber gets its own bounded buffer per symbol that drops the oldest
+ * quotes when the client falls behind, so a slow client only ever sees newer
+ * prices and never holds back the others. New subscribers first receive the
+ * latest known quote.
+ */
+@Component
+@Slf4j
+public class QuoteStreamHub {
+
+    public enum QuoteType { STOCK, CRYPTO }
+
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final int maxSymbolsPerClient;
+    private final Duration heartbeatInterval;
+    private final Counter droppedQuotes;
+
+    public QuoteStreamHub(
+            MeterRegistry meterRegistry,
+            @Value("${financial.stream.buffer-size:8}") int bufferSize,
+            @Value("${financial.stream.max-symbols-per-client:20}") int maxSymbolsPerClient,
+            @Value("${financial.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.bufferSize = bufferSize;
+        this.maxSymbolsPerClient = maxSymbolsPerClient;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+        this.droppedQuotes = Counter.builder("financial.stream.dropped")
+                .description("Quotes dropped for slow stream subscribers")
+                .register(meterRegistry);
+        Gauge.builder("financial.stream.channels", channels, ConcurrentMap::size)
+                .description("Symbols with at least one stream subscriber")
+                .register(meterRegistry);
+    }
+
+    /**
+     * One symbol's shared stream and its subscriber count.
+     */
+    private static final class Channel {
+        private final QuoteType type;
+        private final String symbol;
+        private final Sinks.Many<Object> sink = Sinks.many().multicast().directBestEffort();
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private volatile Object latest;
+
+        private Channel(QuoteType type, String symbol) {
+            this.type = type;
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * Stream quotes for the given symbols as server-sent events, with periodic heartbeats.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(QuoteType type, List<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                normalized.add(symbol.trim().toUpperCase());
+            }
+        }
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        if (normalized.size() > maxSymbolsPerClient) {
+            throw new IllegalArgumentException("At most " + maxSymbolsPerClient + " symbols can be streamed at once");
+        }
+
+        Flux<ServerSentEvent<Object>> quotes = Flux.merge(normalized.stream()
+                        .map(symbol -> watch(type, symbol))
+                        .toList())
+                .map(quote -> ServerSentEvent.builder(quote).event("quote").build());
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<Object>builder().comment("heartbeat").build());
+        return Flux.merge(quotes, heartbeats);
+    }
+
+    /**
+     * Deliver a quote to every subscriber of its symbol.
+     */
+    public void publish(QuoteType type, String symbol, Object quote) {
+        Channel channel = channels.get(key(type, symbol));
+        if (channel == null) {
+            return;
+        }
+        channel.latest = quote;
+        synchronized (channel) {
+            channel.sink.tryEmitNext(quote);
+        }
+    }
+
+    /**
+     * Symbols of the given type that currently have subscribers.
+     */
+    public List<String> watchedSymbols(QuoteType type) {
+        List<String> symbols = new ArrayList<>();
+        channels.values().forEach(channel -> {
+            if (channel.type == type) {
+                symbols.add(channel.symbol);
+            }
+        });
+        return symbols;
+    }
+
+    private Flux<Object> watch(QuoteType type, String symbol) {
+        String key = key(type, symbol);
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(key, (k, existing) -> {
+                Channel target = existing != null ? existing : new Channel(type, symbol);
+                target.subscribers.incrementAndGet();
+                return target;
+            });
+            log.debug("Stream subscriber added for {} ({} subscribers)", key, channel.subscribers.get());
+
+            Flux<Object> live = channel.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize, dropped -> droppedQuotes.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST);
+            Object latest = channel.latest;
+            return (latest != null ? live.startWith(latest) : live)
+                    .doFinally(signal -> release(key, channel));
+        });
+    }
+
+    private void release(String key, Channel channel) {
+        channels.computeIfPresent(key, (k, current) ->
+                current == channel && current.subscribers.decrementAndGet() == 0 ? null : current);
+    }
+
+    private String key(QuoteType type, String symbol) {
+        return type + ":" + symbol.toUpperCase();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.client.RequestPriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Refreshes the quotes of streamed symbols on a fixed interval.
+ *
+ * A Redis lock per symbol and interval makes sure only one instance in the
+ * cluster polls Finnhub for a symbol, however many instances and subscribers
+ * watch it. The refreshed quote is published to Kafka as usual, and every
+ * instance's {@link QuoteStreamHub} delivers it to its own subscribers.
+ * Stocks are skipped while their exchange is closed, since their quote cannot move.
+ */
+@Component
+@Slf4j
+public class QuoteStreamPoller {
+
+    private final QuoteStreamHub hub;
+    private final FinancialService financialService;
+    private final StringRedisTemplate redisTemplate;
+    private final ExchangeCalendar exchangeCalendar;
+    private final Duration pollInterval;
+    private final int maxConcurrency;
+
+    public QuoteStreamPoller(
+            QuoteStreamHub hub,
+            FinancialService financialService,
+            StringRedisTemplate redisTemplate,
+            ExchangeCalendar exchangeCalendar,
+            @Value("${financial.stream.poll-interval-ms:15000}") long pollIntervalMs,
+            @Value("${financial.stream.poll-concurrency:4}") int maxConcurrency) {
+        this.hub = hub;
+        this.financialService = financialService;
+        this.redisTemplate = redisTemplate;
+        this.exchangeCalendar = exchangeCalendar;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Scheduled(fixedDelayString = "${financial.stream.poll-interval-ms:15000}")
+    public void poll() {
+        Instant now = Instant.now();
+        Flux.fromIterable(hub.watchedSymbols(QuoteStreamHub.QuoteType.STOCK))
+                .filter(symbol -> exchangeCalendar.isOpen(symbol, now))
+                .filter(symbol -> acquirePollLock(QuoteStreamHub.QuoteType.STOCK, symbol))
+                .flatMap(symbol -> financialService.refreshStockQuote(symbol, RequestPriority.BACKGROUND)
+                        .onErrorResume(e -> logFailure(symbol, e)), maxConcurrency)
+                .subscribe();
+        Flux.fromIterable(hub.watchedSymbols(QuoteStreamHub.QuoteType.CRYPTO))
+                .filter(symbol -> acquirePollLock(QuoteStreamHub.QuoteType.CRYPTO, symbol))
+                .flatMap(symbol -> financialService.refreshCryptoQuote(symbol, RequestPriority.BACKGROUND)
+                        .onErrorResume(e -> logFailure(symbol, e)), maxConcurrency)
+                .subscribe();
+    }
+
+    private boolean acquirePollLock(QuoteStreamHub.QuoteType type, String symbol) {
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent("quote-stream:poll:" + type + ":" + symbol, "1", pollInterval);
+            return Boolean.TRUE.equals(acquired);
+        } catch (Exception e) {
+            log.debug("Could not acquire poll lock for {}: {}", symbol, e.getMessage());
+            return false;
+        }
+    }
+
+    private <T> Mono<T> logFailure(String symbol, Throwable e) {
+        log.warn("Stream poll failed for {}: {}", symbol, e.getMessage());
+        return Mono.empty();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.idap.financialservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of ticks for one symbol, stored column by column.
+ * Each tick is a timestamp in epoch milliseconds plus a fixed number of long
+ * values (prices are stored as scaled longs). The arrays start small and double
+ * as ticks arrive, up to the capacity; once full, the oldest tick is overwritten.
+ */
+public class TickRingBuffer {
+
+    /**
+     * Builds a result object from one tick; the values array is reused between calls.
+     */
+    @FunctionalInterface
+    public interface TickMapper<T> {
+        T map(long timestamp, long[] values);
+    }
+
+    private final int capacity;
+    private long[] timestamps;
+    private long[][] columns;
+    private int next;
+    private int size;
+
+    public TickRingBuffer(int initialCapacity, int capacity, int columnCount) {
+        int length = Math.max(1, Math.min(initialCapacity, capacity));
+        this.capacity = capacity;
+        this.timestamps = new long[length];
+        this.columns = new long[columnCount][length];
+    }
+
+    public synchronized void append(long timestamp, long... values) {
+        if (size == timestamps.length && size < capacity) {
+            grow();
+        }
+        timestamps[next] = timestamp;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][next] = values[c];
+        }
+        next = (next + 1) % timestamps.length;
+        size = Math.min(timestamps.length, size + 1);
+    }
+
+    /**
+     * Timestamp of the oldest tick still held, or Long.MAX_VALUE when empty.
+     */
+    public synchronized long oldestTimestamp() {
+        return size == 0 ? Long.MAX_VALUE : timestamps[(next - size + timestamps.length) % timestamps.length];
+    }
+
+    public synchronized boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Ticks at or after the given time, newest first.
+     */
+    public synchronized <T> List<T> readSince(long sinceMillis, TickMapper<T> mapper) {
+        List<T> result = new ArrayList<>();
+        long[] values = new long[columns.length];
+        for (int i = 1; i <= size; i++) {
+            int index = (next - i + timestamps.length) % timestamps.length;
+            if (timestamps[index] < sinceMillis) {
+                break;
+            }
+            for (int c = 0; c < columns.length; c++) {
+                values[c] = columns[c][index];
+            }
+            result.add(mapper.map(timestamps[index], values));
+        }
+        return result;
+    }
+
+    /**
+     * Double the arrays, laying the held ticks out oldest first.
+     * Only called when the buffer is full, so the oldest tick sits at next.
+     */
+    private void grow() {
+        int length = (int) Math.min(capacity, timestamps.length * 2L);
+        timestamps = unwrap(timestamps, length);
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = unwrap(columns[c], length);
+        }
+        next = size;
+    }
+
+    private long[] unwrap(long[] source, int length) {
+        long[] target = new long[length];
+        int tail = source.length - next;
+        System.arraycopy(source, next, target, 0, tail);
+        System.arraycopy(source, 0, target, tail, next);
+        return target;
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.idap.financialservice.service;
+
+import com.idap.financialservice.dto.CryptoQuoteResponse;
+import com.idap.financialservice.dto.StockQuoteResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory store of recent quote ticks per symbol, used to serve recent history
+ * without touching the database.
+ *
+ * Prices are kept as scaled longs in a {@link TickRingBuffer} per symbol. A
+ * history window is served from memory only when this instance holds every tick
+ * of it: the window must start within the configured horizon, after the store
+ * started receiving ticks, and after the oldest tick still in the buffer.
+ * Otherwise callers fall back to the database.
+ *
+ * Buffers start small and grow with the symbol's tick rate, and the number of
+ * symbols held is capped: past the cap, the symbol that was least recently
+ * recorded or read is evicted. A symbol that comes back after eviction is only
+ * served from memory for windows starting after it was evicted. Eviction times
+ * are remembered for at most as many symbols as the cap; when one is forgotten,
+ * every symbol created later is covered from that time at the earliest.
+ */
+@Component
+@Slf4j
+public class TickStore {
+
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Stock columns: current, high, low, open, previous close, change (scale 4), percent change (scale 4), volume
+    private static final int STOCK_COLUMNS = 8;
+    private static final int STOCK_SCALE = 4;
+
+    // Crypto columns: price, high, low (scale 8), percent change (scale 4), volume, market cap (scale 2)
+    private static final int CRYPTO_COLUMNS = 6;
+    private static final int CRYPTO_PRICE_SCALE = 8;
+    private static final int CRYPTO_PERCENT_SCALE = 4;
+    private static final int CRYPTO_AMOUNT_SCALE = 2;
+
+    private final ConcurrentMap<String, Series> stocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Series> cryptos = new ConcurrentHashMap<>();
+    private final Map<String, Long> evictedAt;
+    private volatile long forgottenEvictionAt;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxSymbols;
+    private final long horizonMillis;
+    private final long startedAt = System.currentTimeMillis();
+
+    public TickStore(
+            @Value("${financial.tick-store.enabled:true}") boolean enabled,
+            @Value("${financial.tick-store.capacity-per-symbol:10000}") int capacity,
+            @Value("${financial.tick-store.max-symbols:2000}") int maxSymbols,
+            @Value("${financial.tick-store.horizon-hours:24}") long horizonHours) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxSymbols = maxSymbols;
+        this.horizonMillis = horizonHours * 3_600_000L;
+        this.forgottenEvictionAt = startedAt;
+        this.evictedAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() <= maxSymbols) {
+                    return false;
+                }
+                forgottenEvictionAt = Math.max(forgottenEvictionAt, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Ticks of one symbol plus the descriptive fields that do not change between ticks.
+     */
+    private static final class Series {
+        private final TickRingBuffer ticks;
+        private final long coveredFrom;
+        private volatile String name;
+        private volatile String detail;
+        private volatile long lastAccess;
+
+        private Series(TickRingBuffer ticks, long coveredFrom) {
+            this.ticks = ticks;
+            this.coveredFrom = coveredFrom;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    public void recordStock(StockQuoteResponse quote) {
+        if (!enabled || quote.getSymbol() == null || quote.getTimestamp() == null) {
+            return;
+        }
+        Series series = series(stocks, "STOCK:", quote.getSymbol().toUpperCase(), STOCK_COLUMNS);
+        series.name = quote.getCompanyName();
+        series.detail = quote.getExchange();
+        series.ticks.append(toMillis(quote.getTimestamp()),
+                scale(quote.getCurrentPrice(), STOCK_SCALE),
+                scale(quote.getHighPrice(), STOCK_SCALE),
+                scale(quote.getLowPrice(), STOCK_SCALE),
+                scale(quote.getOpenPrice(), STOCK_SCALE),
+                scale(quote.getPreviousClose(), STOCK_SCALE),
+                scale(quote.getChange(), STOCK_SCALE),
+                scale(quote.getPercentChange(), STOCK_SCALE),
+                quote.getVolume() != null ? quote.getVolume() : MISSING);
+    }
+
+    public void recordCrypto(CryptoQuoteResponse quote) {
+        if (!enabled || quote.getSymbol() == null || quote.getTimestamp() == null) {
+            return;
+        }
+        Series series = series(cryptos, "CRYPTO:", quote.getSymbol().toUpperCase(), CRYPTO_COLUMNS);
+        series.name = quote.getBaseCurrency();
+        series.detail = quote.getQuoteCurrency();
+        series.ticks.append(toMillis(quote.getTimestamp()),
+                scale(quote.getPrice(), CRYPTO_PRICE_SCALE),
+                scale(quote.getHigh24h(), CRYPTO_PRICE_SCALE),
+                scale(quote.getLow24h(), CRYPTO_PRICE_SCALE),
+                scale(quote.getPercentChange24h(), CRYPTO_PERCENT_SCALE),
+                scale(quote.getVolume24h(), CRYPTO_AMOUNT_SCALE),
+                scale(quote.getMarketCap(), CRYPTO_AMOUNT_SCALE));
+    }
+
+    /**
+     * Stock ticks since the given time, newest first, or empty if memory does not cover the window.
+     */
+    public Optional<List<StockQuoteResponse>> stockHistory(String symbol, LocalDateTime since) {
+        long sinceMillis = toMillis(since);
+        Series series = stocks.get(symbol.toUpperCase());
+        if (!covers(series, sinceMillis)) {
+            return Optional.empty();
+        }
+        String symbolKey = symbol.toUpperCase();
+        return Optional.of(series.ticks.readSince(sinceMillis, (timestamp, values) -> StockQuoteResponse.builder()
+                .symbol(symbolKey)
+                .companyName(series.name)
+                .currentPrice(unscale(values[0], STOCK_SCALE))
+                .highPrice(unscale(values[1], STOCK_SCALE))
+                .lowPrice(unscale(values[2], STOCK_SCALE))
+                .openPrice(unscale(values[3], STOCK_SCALE))
+                .previousClose(unscale(values[4], STOCK_SCALE))
+                .change(unscale(values[5], STOCK_SCALE))
+                .percentChange(unscale(values[6], STOCK_SCALE))
+                .volume(values[7] != MISSING ? values[7] : null)
+                .exchange(series.detail)
+                .timestamp(toDateTime(timestamp))
+                .source("MEMORY")
+                .build()));
+    }
+
+    /**
+     * Crypto ticks since the given time, newest first, or empty if memory does not cover the window.
+     */
+    public Optional<List<CryptoQuoteResponse>> cryptoHistory(String symbol, LocalDateTime since) {
+        long sinceMillis = toMillis(since);
+        Series series = cryptos.get(symbol.toUpperCase());
+        if (!covers(series, sinceMillis)) {
+            return Optional.empty();
+        }
+        String symbolKey = symbol.toUpperCase();
+        return Optional.of(series.ticks.readSince(sinceMillis, (timestamp, values) -> CryptoQuoteResponse.builder()
+                .symbol(symbolKey)
+                .baseCurrency(series.name)
+                .quoteCurrency(series.detail)
+                .price(unscale(values[0], CRYPTO_PRICE_SCALE))
+                .high24h(unscale(values[1], CRYPTO_PRICE_SCALE))
+                .low24h(unscale(values[2], CRYPTO_PRICE_SCALE))
+                .percentChange24h(unscale(values[3], CRYPTO_PERCENT_SCALE))
+                .volume24h(unscale(values[4], CRYPTO_AMOUNT_SCALE))
+                .marketCap(unscale(values[5], CRYPTO_AMOUNT_SCALE))
+                .timestamp(toDateTime(timestamp))
+                .source("MEMORY")
+                .build()));
+    }
+
+    private Series series(ConcurrentMap<String, Series> map, String prefix, String symbol, int columnCount) {
+        Series series = map.get(symbol);
+        if (series == null) {
+            boolean[] created = new boolean[1];
+            series = map.computeIfAbsent(symbol, s -> {
+                created[0] = true;
+                long coveredFrom = coveredFrom(prefix + s);
+                return new Series(new TickRingBuffer(INITIAL_CAPACITY, capacity, columnCount), coveredFrom);
+            });
+            if (created[0]) {
+                evictIdle();
+            }
+        }
+        series.lastAccess = System.currentTimeMillis();
+        return series;
+    }
+
+    /**
+     * Only symbols being recorded have a series, so an evicted symbol had no ticks between
+     * its eviction and its return; it is covered from its eviction time. A symbol whose
+     * eviction was forgotten is covered from the latest forgotten eviction instead.
+     */
+    private long coveredFrom(String key) {
+        synchronized (evictedAt) {
+            Long evictedTime = evictedAt.remove(key);
+            return evictedTime != null ? evictedTime : forgottenEvictionAt;
+        }
+    }
+
+    /**
+     * Drop the least recently used symbols until the store is back under the symbol cap.
+     */
+    private void evictIdle() {
+        while (stocks.size() + cryptos.size() > maxSymbols) {
+            ConcurrentMap<String, Series> idleMap = null;
+            String idleSymbol = null;
+            long idleSince = Long.MAX_VALUE;
+            for (ConcurrentMap<String, Series> map : List.of(stocks, cryptos)) {
+                for (Map.Entry<String, Series> entry : map.entrySet()) {
+                    if (entry.getValue().lastAccess < idleSince) {
+                        idleMap = map;
+                        idleSymbol = entry.getKey();
+                        idleSince = entry.getValue().lastAccess;
+                    }
+                }
+            }
+            if (idleMap == null) {
+                return;
+            }
+            // Remember the eviction before removing, so a series recreated concurrently sees it
+            synchronized (evictedAt) {
+                evictedAt.put((idleMap == stocks ? "STOCK:" : "CRYPTO:") + idleSymbol, System.currentTimeMillis());
+            }
+            if (idleMap.remove(idleSymbol) != null) {
+                log.debug("Evicted idle tick series {}", idleSymbol);
+            }
+        }
+    }
+
+    private boolean covers(Series series, long sinceMillis) {
+        if (!enabled || series == null) {
+            return false;
+        }
+        series.lastAccess = System.currentTimeMillis();
+        if (sinceMillis < series.coveredFrom || sinceMillis < System.currentTimeMillis() - horizonMillis) {
+            return false;
+        }
+        // Once the buffer has wrapped, ticks older than the oldest one held are gone
+        return !series.ticks.isFull() || series.ticks.oldestTimestamp() <= sinceMillis;
+    }
+
+    private static long scale(BigDecimal value, int scale) {
+        return value == null ? MISSING : value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static BigDecimal unscale(long value, int scale) {
+        return value == MISSING ? null : BigDecimal.valueOf(value, scale);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+}
@@ -0,0 +1,51 @@
+-- Quote tables for Financial Service
+-- Both tables are range-partitioned by day on recorded_at. MySQL requires the
+-- partitioning column in every unique key, so the primary key is (id, recorded_at).
+-- Daily partitions are created ahead and dropped after the retention period
+-- by QuotePartitionManager; rows beyond the last daily partition land in p_future.
+-- CREATE TABLE IF NOT EXISTS leaves existing tables alone; QuotePartitionManager
+-- converts a table it finds unpartitioned in place on its first run.
+-- The (symbol, recorded_at) index serves both the symbol filter and the time order;
+-- InnoDB appends the primary key to it, so (recorded_at, id) keyset pages need no sort.
+
+CREATE TABLE IF NOT EXISTS stock_quotes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    symbol VARCHAR(10) NOT NULL,
+    current_price DECIMAL(12,4) NOT NULL,
+    high_price DECIMAL(12,4),
+    low_price DECIMAL(12,4),
+    open_price DECIMAL(12,4),
+    previous_close DECIMAL(12,4),
+    percent_change DECIMAL(10,2),
+    price_change DECIMAL(12,4),
+    volume BIGINT,
+    recorded_at DATETIME(6) NOT NULL,
+    exchange VARCHAR(50),
+    company_name VARCHAR(100),
+    PRIMARY KEY (id, recorded_at),
+    INDEX idx_stock_symbol_recorded_at (symbol, recorded_at),
+    INDEX idx_stock_recorded_at (recorded_at)
+)
+PARTITION BY RANGE COLUMNS (recorded_at) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE TABLE IF NOT EXISTS crypto_quotes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    symbol VARCHAR(20) NOT NULL,
+    base_currency VARCHAR(20) NOT NULL,
+    quote_currency VARCHAR(10) NOT NULL,
+    price DECIMAL(18,8) NOT NULL,
+    high24h DECIMAL(18,8),
+    low24h DECIMAL(18,8),
+    percent_change24h DECIMAL(10,4),
+    volume24h DECIMAL(24,2),
+    market_cap DECIMAL(24,2),
+    recorded_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, recorded_at),
+    INDEX idx_crypto_symbol_recorded_at (symbol, recorded_at),
+    INDEX idx_crypto_recorded_at (recorded_at)
+)
+PARTITION BY RANGE COLUMNS (recorded_at) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
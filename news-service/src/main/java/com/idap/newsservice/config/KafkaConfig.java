@@ -1,5 +1,6 @@
 package com.idap.newsservice.config;
 
+import com.idap.events.AvroEventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -25,9 +26,9 @@ public class KafkaConfig {
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Generated Avro records are written as Avro, everything else as JSON
+        return new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new AvroEventSerializer(new JsonSerializer<>()));
     }
 
     @Bean
@@ -1,11 +1,13 @@
 package com.idap.newsservice.service;
 
+import com.idap.events.avro.NewsArticlePublished;
 import com.idap.newsservice.client.NewsApiClient;
 import com.idap.newsservice.dto.ArticleResponse;
 import com.idap.newsservice.model.Article;
 import com.idap.newsservice.repository.ArticleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -26,6 +28,9 @@ public class NewsService {
 
     private static final String NEWS_TOPIC = "news.article.published";
 
+    @Value("${kafka.events.encoding:json}")
+    private String eventEncoding;
+
     public List<ArticleResponse> getTopHeadlines(String category, String country) {
         log.info("Getting top headlines for category: {}", category);
         List<ArticleResponse> articles = newsApiClient.getTopHeadlines(category, country);
@@ -86,13 +91,31 @@ public class NewsService {
 
     private void publishNewsEvent(ArticleResponse article) {
         try {
-            kafkaTemplate.send(NEWS_TOPIC, article.getCategory(), article);
+            Object event = "avro".equalsIgnoreCase(eventEncoding) ? toEvent(article) : article;
+            kafkaTemplate.send(NEWS_TOPIC, article.getCategory(), event);
             log.debug("Published news event for: {}", article.getTitle());
         } catch (Exception e) {
             log.error("Failed to publish news event: {}", e.getMessage());
         }
     }
 
+    private NewsArticlePublished toEvent(ArticleResponse article) {
+        return NewsArticlePublished.newBuilder()
+                .setId(article.getId())
+                .setSourceName(article.getSourceName())
+                .setAuthor(article.getAuthor())
+                .setTitle(article.getTitle())
+                .setDescription(article.getDescription())
+                .setUrl(article.getUrl())
+                .setUrlToImage(article.getUrlToImage())
+                .setPublishedAt(article.getPublishedAt())
+                .setCategory(article.getCategory())
+                .setKeywords(article.getKeywords() != null ? article.getKeywords() : List.of())
+                .setSentiment(article.getSentiment())
+                .setSource(article.getSource())
+                .build();
+    }
+
     private ArticleResponse mapToResponse(Article article) {
         return ArticleResponse.builder()
                 .id(article.getId())
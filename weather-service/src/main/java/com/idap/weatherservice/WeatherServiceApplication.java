@@ -13,8 +13,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * 
  * Endpoints:
  * - GET /api/weather/current?city={city} - Get current weather
+ * - GET /api/weather/current/bulk?cities={city1},{city2} - Get current weather for several cities
+ * - GET /api/weather/nearby?lat={lat}&lon={lon}&radiusKm={km} - Get current weather near a location
  * - GET /api/weather/forecast?city={city}&days={days} - Get weather forecast
- * - GET /api/weather/history?city={city} - Get historical weather data
+ * - GET /api/weather/history?city={city}&resolution={raw|5m|1h|1d} - Get historical weather data
  */
 @SpringBootApplication
 @EnableDiscoveryClient
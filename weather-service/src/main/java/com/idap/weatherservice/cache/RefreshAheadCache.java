@@ -0,0 +1,129 @@
+package com.idap.weatherservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache decorator implementing refresh-ahead (stale-while-revalidate).
+ * Once an entry is older than a fraction of its TTL, hits still return it
+ * immediately while a background task reloads the value and puts it back.
+ */
+public class RefreshAheadCache implements Cache {
+
+    private final Cache delegate;
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final RefreshAheadCacheManager owner;
+
+    // Local record of when each entry was written; unknown entries are looked up in Redis once
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> writeTimes;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    RefreshAheadCache(Cache delegate, Duration ttl, double refreshFraction, RefreshAheadCacheManager owner) {
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAfterMillis = (long) (ttlMillis * refreshFraction);
+        this.owner = owner;
+        this.writeTimes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null) {
+            refreshIfAging(key);
+        }
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        if (value != null) {
+            refreshIfAging(key);
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        writeTimes.put(key, System.currentTimeMillis());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            writeTimes.put(key, System.currentTimeMillis());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        writeTimes.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        writeTimes.invalidateAll();
+    }
+
+    private void refreshIfAging(Object key) {
+        Long writtenAt = writeTimes.get(key, k -> owner.estimateWriteTime(getName(), k, ttlMillis));
+        if (writtenAt == null || !isAging(writtenAt)) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return;
+        }
+        owner.scheduleRefresh(this, key, () -> refreshing.remove(key));
+    }
+
+    /**
+     * Reload the entry unless another instance has refreshed it in the meantime.
+     */
+    void refresh(Object key) {
+        Long writtenAt = owner.estimateWriteTime(getName(), key, ttlMillis);
+        if (writtenAt != null && !isAging(writtenAt)) {
+            writeTimes.put(key, writtenAt);
+            return;
+        }
+
+        Object value = owner.load(getName(), key);
+        if (value != null) {
+            put(key, value);
+        }
+    }
+
+    private boolean isAging(long writtenAt) {
+        return System.currentTimeMillis() - writtenAt >= refreshAfterMillis;
+    }
+
+}
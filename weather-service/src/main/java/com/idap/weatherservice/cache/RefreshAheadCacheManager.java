@@ -0,0 +1,159 @@
+package com.idap.weatherservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * CacheManager that adds refresh-ahead behaviour to selected caches.
+ *
+ * Caches listed in the TTL map are wrapped in a {@link RefreshAheadCache}; the
+ * value loaders used for background refreshes are registered by the owning
+ * service at startup. All other caches are returned as-is from the delegate.
+ */
+@Slf4j
+public class RefreshAheadCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Duration> ttls;
+    private final double refreshFraction;
+    private final boolean enabled;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Function<Object, Object>> loaders = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+        2, 4, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+        runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-ahead");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public RefreshAheadCacheManager(CacheManager delegate, StringRedisTemplate redisTemplate,
+                                    MeterRegistry meterRegistry, Map<String, Duration> ttls,
+                                    double refreshFraction, boolean enabled) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttls = Map.copyOf(ttls);
+        this.refreshFraction = refreshFraction;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        Duration ttl = ttls.get(name);
+        if (!enabled || ttl == null) {
+            return target;
+        }
+        return caches.computeIfAbsent(name, n -> new RefreshAheadCache(target, ttl, refreshFraction, this));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Register the function used to reload entries of a cache in the background.
+     * The loader receives the cache key and returns the new value, or null to skip caching it.
+     */
+    public void registerLoader(String cacheName, Function<Object, Object> loader) {
+        loaders.put(cacheName, loader);
+    }
+
+    Object load(String cacheName, Object key) {
+        Function<Object, Object> loader = loaders.get(cacheName);
+        return loader != null ? loader.apply(key) : null;
+    }
+
+    void scheduleRefresh(RefreshAheadCache cache, Object key, Runnable onComplete) {
+        if (!loaders.containsKey(cache.getName()) || !acquireRefreshLock(cache.getName(), key)) {
+            onComplete.run();
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    cache.refresh(key);
+                    meterRegistry.counter("cache.refresh.ahead", "cache", cache.getName(), "result", "success")
+                        .increment();
+                    log.debug("Refreshed {}::{} ahead of expiry", cache.getName(), key);
+                } catch (Exception e) {
+                    meterRegistry.counter("cache.refresh.ahead", "cache", cache.getName(), "result", "failure")
+                        .increment();
+                    log.warn("Refresh-ahead failed for {}::{}: {}", cache.getName(), key, e.getMessage());
+                } finally {
+                    onComplete.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Refresh-ahead queue full, skipping {}::{}", cache.getName(), key);
+            onComplete.run();
+        }
+    }
+
+    /**
+     * Estimate when an entry was written from the TTL remaining on its Redis key.
+     * Returns null if the key is gone or Redis cannot be reached.
+     */
+    Long estimateWriteTime(String cacheName, Object key, long ttlMillis) {
+        try {
+            Long remaining = redisTemplate.getExpire(cacheName + "::" + key, TimeUnit.MILLISECONDS);
+            if (remaining == null || remaining < 0) {
+                return null;
+            }
+            return System.currentTimeMillis() - (ttlMillis - remaining);
+        } catch (Exception e) {
+            log.debug("Could not read TTL for {}::{}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Only one instance refreshes a given entry per refresh window.
+     */
+    private boolean acquireRefreshLock(String cacheName, Object key) {
+        Duration window = Duration.ofMillis(
+            Math.max(1000, (long) (ttls.get(cacheName).toMillis() * (1 - refreshFraction))));
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(cacheName + "::" + key + "::refresh", "1", window);
+            return Boolean.TRUE.equals(acquired);
+        } catch (Exception e) {
+            log.debug("Could not acquire refresh lock for {}::{}: {}", cacheName, key, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+}
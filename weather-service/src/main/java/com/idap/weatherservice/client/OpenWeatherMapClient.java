@@ -12,6 +12,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 /**
@@ -66,6 +67,31 @@ public class OpenWeatherMapClient {
         return mapToWeatherResponse(response);
     }
 
+    /**
+     * Fetch current weather for a location.
+     */
+    @CircuitBreaker(name = "openweathermap", fallbackMethod = "getCurrentWeatherByCoordinatesFallback")
+    public WeatherResponse getCurrentWeatherByCoordinates(double latitude, double longitude) {
+        if (!apiKeyConfigured) {
+            return getMockCurrentWeather(latitude, longitude);
+        }
+
+        log.info("Fetching current weather for coordinates: {}, {}", latitude, longitude);
+
+        OpenWeatherMapDto.CurrentWeatherResponse response = restClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/weather")
+                .queryParam("lat", latitude)
+                .queryParam("lon", longitude)
+                .queryParam("appid", apiKey)
+                .queryParam("units", "metric")
+                .build())
+            .retrieve()
+            .body(OpenWeatherMapDto.CurrentWeatherResponse.class);
+
+        return mapToWeatherResponse(response);
+    }
+
     /**
      * Fetch 5-day forecast for a city.
      */
@@ -97,6 +123,12 @@ public class OpenWeatherMapClient {
         return getMockCurrentWeather(city);
     }
 
+    public WeatherResponse getCurrentWeatherByCoordinatesFallback(double latitude, double longitude, Throwable t) {
+        log.error("Circuit breaker triggered for getCurrentWeatherByCoordinates. Coordinates: {}, {}, Error: {}",
+            latitude, longitude, t.getMessage());
+        return getMockCurrentWeather(latitude, longitude);
+    }
+
     public ForecastResponse getForecastFallback(String city, int days, Throwable t) {
         log.error("Circuit breaker triggered for getForecast. City: {}, Error: {}", city, t.getMessage());
         return getMockForecast(city, days);
@@ -193,6 +225,13 @@ public class OpenWeatherMapClient {
             .build();
     }
 
+    private WeatherResponse getMockCurrentWeather(double latitude, double longitude) {
+        WeatherResponse response = getMockCurrentWeather(String.format(Locale.ROOT, "%.4f,%.4f", latitude, longitude));
+        response.setLatitude(latitude);
+        response.setLongitude(longitude);
+        return response;
+    }
+
     private ForecastResponse getMockForecast(String city, int days) {
         log.info("Returning mock forecast data for city: {}, days: {}", city, days);
         List<ForecastResponse.ForecastDay> mockForecast = java.util.stream.IntStream.range(0, days * 8)
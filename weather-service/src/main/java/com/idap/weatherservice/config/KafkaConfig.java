@@ -1,5 +1,6 @@
 package com.idap.weatherservice.config;
 
+import com.idap.events.AvroEventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -10,13 +11,18 @@ import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Kafka configuration for Weather Service.
- * Configures producer for publishing weather events.
+ * Configures producer for publishing weather events, and the error handling of
+ * the dead-letter replay consumer.
+ * Values are JSON strings, or Avro records when kafka.events.encoding is avro.
  */
 @Configuration
 public class KafkaConfig {
@@ -27,12 +33,16 @@ public class KafkaConfig {
     @Value("${kafka.topics.weather-updated:weather.updated}")
     private String weatherUpdatedTopic;
 
+    @Value("${kafka.topics.weather-dead-letter:weather.data.dead-letter}")
+    private String weatherDeadLetterTopic;
+
+    @Value("${weather.persistence.dead-letter-replay.retry-interval-ms:30000}")
+    private long replayRetryIntervalMs;
+
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         
         // Reliability settings
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
@@ -44,14 +54,24 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
         configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(configProps,
+            new StringSerializer(), new AvroEventSerializer(new StringSerializer()));
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * Redeliver a failed record until it succeeds, so a dead-lettered observation
+     * is never skipped while the database is still unavailable.
+     */
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler() {
+        return new DefaultErrorHandler(new FixedBackOff(replayRetryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+
     /**
      * Create weather.updated topic if it doesn't exist.
      */
@@ -63,4 +83,15 @@ public class KafkaConfig {
             .build();
     }
 
+    /**
+     * Create the dead-letter topic for observations the write-behind could not store.
+     */
+    @Bean
+    public NewTopic weatherDeadLetterTopic() {
+        return TopicBuilder.name(weatherDeadLetterTopic)
+            .partitions(3)
+            .replicas(1)
+            .build();
+    }
+
 }
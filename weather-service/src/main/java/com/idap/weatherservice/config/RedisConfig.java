@@ -3,12 +3,21 @@ package com.idap.weatherservice.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.idap.cache.TwoTierCacheManager;
+import com.idap.weatherservice.cache.RefreshAheadCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -19,11 +28,34 @@ import java.util.Map;
 
 /**
  * Redis cache configuration for Weather Service.
+ * Redis caches are fronted by an in-process near cache (see {@link TwoTierCacheManager})
+ * and the weather caches are refreshed ahead of expiry (see {@link RefreshAheadCacheManager}).
  */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    public static final String CURRENT_WEATHER_CACHE = "weather:current";
+    public static final String FORECAST_CACHE = "weather:forecast";
+
+    private static final Duration CURRENT_WEATHER_TTL = Duration.ofMinutes(10);
+    private static final Duration FORECAST_TTL = Duration.ofMinutes(30);
+
+    @Value("${spring.application.name:weather-service}")
+    private String applicationName;
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${cache.near.time-to-live-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${cache.refresh-ahead.enabled:true}")
+    private boolean refreshAheadEnabled;
+
+    @Value("${cache.refresh-ahead.fraction:0.8}")
+    private double refreshAheadFraction;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -33,7 +65,8 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+    public TwoTierCacheManager nearCacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper,
+                                            StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(10))
@@ -47,16 +80,61 @@ public class RedisConfig {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
         
         // Current weather: 10 minutes TTL
-        cacheConfigurations.put("weather:current", defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        cacheConfigurations.put(CURRENT_WEATHER_CACHE, defaultConfig.entryTtl(CURRENT_WEATHER_TTL));
         
         // Forecast: 30 minutes TTL
-        cacheConfigurations.put("weather:forecast", defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        cacheConfigurations.put(FORECAST_CACHE, defaultConfig.entryTtl(FORECAST_TTL));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
             .transactionAware()
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate, meterRegistry,
+            "cache:invalidation:" + applicationName,
+            nearCacheMaximumSize, Duration.ofSeconds(nearCacheTtlSeconds));
+    }
+
+    /**
+     * Cache manager used by the caching annotations.
+     * Entries past the configured fraction of their TTL are served while being refreshed in the background.
+     */
+    @Bean
+    @Primary
+    public RefreshAheadCacheManager cacheManager(TwoTierCacheManager nearCacheManager,
+                                                 StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        return new RefreshAheadCacheManager(nearCacheManager, redisTemplate, meterRegistry,
+            Map.of(CURRENT_WEATHER_CACHE, CURRENT_WEATHER_TTL, FORECAST_CACHE, FORECAST_TTL),
+            refreshAheadFraction, refreshAheadEnabled);
+    }
+
+    /**
+     * Template using the same key and value serialization as the caches,
+     * for bulk reads (MGET) of cache entries.
+     */
+    @Bean
+    public RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                            ObjectMapper objectMapper) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
+        return template;
+    }
+
+    /**
+     * Listens for near cache invalidations published by other instances.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoTierCacheManager nearCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCacheManager,
+            new ChannelTopic(nearCacheManager.getInvalidationChannel()));
+        return container;
     }
 
 }
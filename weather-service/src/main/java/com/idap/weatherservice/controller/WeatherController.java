@@ -1,7 +1,11 @@
 package com.idap.weatherservice.controller;
 
+import com.idap.weatherservice.dto.BulkWeatherResponse;
 import com.idap.weatherservice.dto.ForecastResponse;
 import com.idap.weatherservice.dto.WeatherResponse;
+import com.idap.weatherservice.model.RollupResolution;
+import com.idap.weatherservice.service.BulkWeatherService;
+import com.idap.weatherservice.service.HotCityTracker;
 import com.idap.weatherservice.service.WeatherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +24,8 @@ import java.util.List;
 public class WeatherController {
 
     private final WeatherService weatherService;
+    private final BulkWeatherService bulkWeatherService;
+    private final HotCityTracker hotCityTracker;
 
     /**
      * Get current weather for a city.
@@ -31,10 +37,42 @@ public class WeatherController {
             @RequestHeader(value = "X-User-Username", required = false) String username) {
         
         log.info("Current weather request for city: {} by user: {}", city, username);
+        hotCityTracker.recordRequest(city);
         WeatherResponse response = weatherService.getCurrentWeather(city);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get current weather for several cities in one call.
+     * GET /api/weather/current/bulk?cities={city1},{city2},...
+     */
+    @GetMapping("/current/bulk")
+    public ResponseEntity<BulkWeatherResponse> getCurrentWeatherBulk(
+            @RequestParam List<String> cities,
+            @RequestHeader(value = "X-User-Username", required = false) String username) {
+
+        log.info("Bulk current weather request for {} cities by user: {}", cities.size(), username);
+        cities.forEach(hotCityTracker::recordRequest);
+        BulkWeatherResponse response = bulkWeatherService.getCurrentWeather(cities);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get current weather near a location.
+     * GET /api/weather/nearby?lat={lat}&lon={lon}&radiusKm={radiusKm}
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<WeatherResponse> getNearbyWeather(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestHeader(value = "X-User-Username", required = false) String username) {
+
+        log.info("Nearby weather request for coordinates: {}, {} within {} km by user: {}", lat, lon, radiusKm, username);
+        WeatherResponse response = weatherService.getNearbyWeather(lat, lon, radiusKm);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get weather forecast for a city.
      * GET /api/weather/forecast?city={city}&days={days}
@@ -56,21 +94,28 @@ public class WeatherController {
 
     /**
      * Get historical weather data for a city.
-     * GET /api/weather/history?city={city}&hours={hours}
+     * GET /api/weather/history?city={city}&hours={hours}&resolution={raw|5m|1h|1d}
+     * The raw resolution returns every observation; the others return pre-aggregated buckets.
      */
     @GetMapping("/history")
-    public ResponseEntity<List<WeatherResponse>> getHistoricalData(
+    public ResponseEntity<List<?>> getHistoricalData(
             @RequestParam String city,
             @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "raw") String resolution,
             @RequestHeader(value = "X-User-Username", required = false) String username) {
         
-        log.info("Historical data request for city: {}, hours: {} by user: {}", city, hours, username);
-        
-        // Limit hours to prevent huge queries
-        hours = Math.max(1, Math.min(168, hours)); // Max 7 days
-        
-        List<WeatherResponse> data = weatherService.getHistoricalData(city, hours);
-        return ResponseEntity.ok(data);
+        log.info("Historical data request for city: {}, hours: {}, resolution: {} by user: {}",
+            city, hours, resolution, username);
+
+        if ("raw".equalsIgnoreCase(resolution)) {
+            // Limit hours to prevent huge queries
+            hours = Math.max(1, Math.min(168, hours)); // Max 7 days
+            return ResponseEntity.ok(weatherService.getHistoricalData(city, hours));
+        }
+
+        RollupResolution rollupResolution = RollupResolution.fromCode(resolution);
+        hours = Math.max(1, Math.min(rollupResolution.getMaxHours(), hours));
+        return ResponseEntity.ok(weatherService.getHistoricalRollups(city, hours, rollupResolution));
     }
 
     /**
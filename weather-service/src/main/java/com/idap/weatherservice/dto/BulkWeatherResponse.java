@@ -0,0 +1,37 @@
+package com.idap.weatherservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for the bulk current-weather endpoint.
+ * Contains one entry per requested city, in request order, with its own status.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkWeatherResponse {
+
+    private List<CityWeather> results;
+    private int requested;
+    private int cacheHits;
+    private int fetched;
+    private int failed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CityWeather {
+        private String city;
+        private String status; // "CACHED", "FETCHED", "FAILED" or "TIMEOUT"
+        private WeatherResponse weather;
+        private String error;
+    }
+
+}
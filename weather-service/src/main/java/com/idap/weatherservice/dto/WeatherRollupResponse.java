@@ -0,0 +1,36 @@
+package com.idap.weatherservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for downsampled weather history (one bucket per entry).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeatherRollupResponse {
+
+    private String city;
+    private String resolution;
+    private LocalDateTime bucketStart;
+    private Long sampleCount;
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private Double temperatureAvg;
+    private Integer humidityMin;
+    private Integer humidityMax;
+    private Double humidityAvg;
+    private Integer pressureMin;
+    private Integer pressureMax;
+    private Double pressureAvg;
+    private Double windSpeedMin;
+    private Double windSpeedMax;
+    private Double windSpeedAvg;
+
+}
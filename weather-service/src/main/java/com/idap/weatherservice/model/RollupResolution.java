@@ -0,0 +1,56 @@
+package com.idap.weatherservice.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the pre-aggregated weather rollups.
+ */
+public enum RollupResolution {
+
+    FIVE_MINUTES("5m", Duration.ofMinutes(5), 24 * 7),
+    HOURLY("1h", Duration.ofHours(1), 24 * 90),
+    DAILY("1d", Duration.ofDays(1), 24 * 365);
+
+    private final String code;
+    private final Duration bucketSize;
+    private final int maxHours;
+
+    RollupResolution(String code, Duration bucketSize, int maxHours) {
+        this.code = code;
+        this.bucketSize = bucketSize;
+        this.maxHours = maxHours;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Longest history window (in hours) that may be requested at this resolution.
+     */
+    public int getMaxHours() {
+        return maxHours;
+    }
+
+    /**
+     * Start of the bucket that contains the given timestamp.
+     */
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+        long minutesIntoDay = Duration.between(day, timestamp).toMinutes();
+        long bucketMinutes = bucketSize.toMinutes();
+        return day.plusMinutes(minutesIntoDay - minutesIntoDay % bucketMinutes);
+    }
+
+    public static RollupResolution fromCode(String code) {
+        for (RollupResolution resolution : values()) {
+            if (resolution.code.equalsIgnoreCase(code)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported resolution: " + code + " (use raw, 5m, 1h or 1d)");
+    }
+
+}
@@ -5,14 +5,16 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 /**
  * Entity for storing historical weather data.
  * Each record represents weather data for a city at a specific time.
+ * Lookups go through the normalized city_key column so they can use the index.
  */
 @Entity
 @Table(name = "weather_data", indexes = {
-    @Index(name = "idx_city_timestamp", columnList = "city, timestamp DESC")
+    @Index(name = "idx_city_key_timestamp", columnList = "city_key, timestamp DESC")
 })
 @Getter
 @Setter
@@ -28,6 +30,10 @@ public class WeatherData {
     @Column(nullable = false, length = 100)
     private String city;
 
+    // Normalized city name (see normalizeCity); nullable only until existing rows are backfilled
+    @Column(name = "city_key", length = 100)
+    private String cityKey;
+
     @Column(nullable = false, length = 100)
     private String country;
 
@@ -73,4 +79,17 @@ public class WeatherData {
     private Double latitude;
     private Double longitude;
 
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        cityKey = normalizeCity(city);
+    }
+
+    /**
+     * Normalized form of a city name used for lookups and cache keys.
+     */
+    public static String normalizeCity(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
 }
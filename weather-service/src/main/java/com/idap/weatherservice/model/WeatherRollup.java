@@ -0,0 +1,63 @@
+package com.idap.weatherservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated weather observations for one city and time bucket.
+ * Rows are maintained incrementally as observations are written; averages
+ * are derived from the stored sums and sample count.
+ */
+@Entity
+@Table(name = "weather_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_city_resolution_bucket",
+        columnNames = {"city_key", "resolution", "bucket_start"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeatherRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "city_key", nullable = false, length = 100)
+    private String cityKey;
+
+    @Column(nullable = false, length = 100)
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RollupResolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long sampleCount;
+
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private Double temperatureSum;
+
+    private Integer humidityMin;
+    private Integer humidityMax;
+    private Double humiditySum;
+
+    private Integer pressureMin;
+    private Integer pressureMax;
+    private Double pressureSum;
+
+    private Double windSpeedMin;
+    private Double windSpeedMax;
+    private Double windSpeedSum;
+
+    private LocalDateTime updatedAt;
+
+}
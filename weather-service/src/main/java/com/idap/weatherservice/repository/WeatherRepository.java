@@ -2,9 +2,11 @@ package com.idap.weatherservice.repository;
 
 import com.idap.weatherservice.model.WeatherData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,6 +14,8 @@ import java.util.Optional;
 
 /**
  * JPA Repository for WeatherData entity.
+ * City parameters are normalized keys (see {@link WeatherData#normalizeCity(String)}),
+ * matching the idx_city_key_timestamp index.
  */
 @Repository
 public interface WeatherRepository extends JpaRepository<WeatherData, Long> {
@@ -19,29 +23,68 @@ public interface WeatherRepository extends JpaRepository<WeatherData, Long> {
     /**
      * Find the most recent weather data for a city.
      */
-    Optional<WeatherData> findTopByCityIgnoreCaseOrderByTimestampDesc(String city);
+    Optional<WeatherData> findTopByCityKeyOrderByTimestampDesc(String cityKey);
 
     /**
      * Find weather data for a city within a time range.
      */
-    List<WeatherData> findByCityIgnoreCaseAndTimestampBetweenOrderByTimestampDesc(
-        String city, LocalDateTime start, LocalDateTime end);
+    List<WeatherData> findByCityKeyAndTimestampBetweenOrderByTimestampDesc(
+        String cityKey, LocalDateTime start, LocalDateTime end);
 
     /**
      * Find recent weather data for a city (limited results).
      */
-    List<WeatherData> findTop24ByCityIgnoreCaseOrderByTimestampDesc(String city);
+    List<WeatherData> findTop24ByCityKeyOrderByTimestampDesc(String cityKey);
 
     /**
      * Get average temperature for a city over a period.
      */
-    @Query("SELECT AVG(w.temperature) FROM WeatherData w WHERE LOWER(w.city) = LOWER(:city) AND w.timestamp >= :since")
-    Optional<Double> getAverageTemperature(@Param("city") String city, @Param("since") LocalDateTime since);
+    @Query("SELECT AVG(w.temperature) FROM WeatherData w WHERE w.cityKey = :cityKey AND w.timestamp >= :since")
+    Optional<Double> getAverageTemperature(@Param("cityKey") String cityKey, @Param("since") LocalDateTime since);
 
     /**
      * Check if weather data exists for a city within the last N minutes.
      */
-    @Query("SELECT COUNT(w) > 0 FROM WeatherData w WHERE LOWER(w.city) = LOWER(:city) AND w.timestamp >= :since")
-    boolean existsRecentData(@Param("city") String city, @Param("since") LocalDateTime since);
+    @Query("SELECT COUNT(w) > 0 FROM WeatherData w WHERE w.cityKey = :cityKey AND w.timestamp >= :since")
+    boolean existsRecentData(@Param("cityKey") String cityKey, @Param("since") LocalDateTime since);
+
+    /**
+     * Find the latest observation of every city observed since the given time.
+     */
+    @Query(value = "SELECT DISTINCT ON (city_key) * FROM weather_data "
+        + "WHERE city_key IS NOT NULL AND timestamp >= :since ORDER BY city_key, timestamp DESC", nativeQuery = true)
+    List<WeatherData> findLatestPerCitySince(@Param("since") LocalDateTime since);
+
+    /**
+     * Lowest id of a row that still has no city_key, or null when every row has one.
+     */
+    @Query(value = "SELECT MIN(id) FROM weather_data WHERE city_key IS NULL", nativeQuery = true)
+    Long findFirstIdWithoutCityKey();
+
+    /**
+     * Highest id of the next chunk of rows after lastId, walking the primary key;
+     * null when there are no rows left.
+     */
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM weather_data WHERE id > :lastId "
+        + "ORDER BY id LIMIT :chunkSize) chunk", nativeQuery = true)
+    Long findChunkUpperId(@Param("lastId") long lastId, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Fill in city_key for rows in the id range (lastId, upperId] written before the column existed.
+     * Returns the number of rows updated.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE weather_data SET city_key = LOWER(TRIM(city)) "
+        + "WHERE id > :lastId AND id <= :upperId AND city_key IS NULL", nativeQuery = true)
+    int backfillCityKeys(@Param("lastId") long lastId, @Param("upperId") long upperId);
+
+    /**
+     * Drop the index on the raw city column, superseded by idx_city_key_timestamp.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DROP INDEX IF EXISTS idx_city_timestamp", nativeQuery = true)
+    void dropLegacyCityIndex();
 
 }
@@ -0,0 +1,23 @@
+package com.idap.weatherservice.repository;
+
+import com.idap.weatherservice.model.RollupResolution;
+import com.idap.weatherservice.model.WeatherRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA Repository for WeatherRollup entity.
+ */
+@Repository
+public interface WeatherRollupRepository extends JpaRepository<WeatherRollup, Long> {
+
+    /**
+     * Find the rollup buckets of a city at one resolution within a time range.
+     */
+    List<WeatherRollup> findByCityKeyAndResolutionAndBucketStartBetweenOrderByBucketStartDesc(
+        String cityKey, RollupResolution resolution, LocalDateTime start, LocalDateTime end);
+
+}
@@ -0,0 +1,188 @@
+package com.idap.weatherservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idap.weatherservice.config.RedisConfig;
+import com.idap.weatherservice.dto.BulkWeatherResponse;
+import com.idap.weatherservice.dto.WeatherResponse;
+import com.idap.weatherservice.model.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service for multi-city current weather lookups.
+ * Cache hits are resolved with a single Redis MGET; misses are fetched concurrently
+ * through {@link WeatherService} on virtual threads with bounded parallelism.
+ */
+@Service
+@Slf4j
+public class BulkWeatherService {
+
+    private final WeatherService weatherService;
+    private final RedisTemplate<String, Object> cacheRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxCities;
+    private final int maxConcurrency;
+    private final long timeoutMs;
+
+    public BulkWeatherService(
+            WeatherService weatherService,
+            RedisTemplate<String, Object> cacheRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${weather.bulk.max-cities:50}") int maxCities,
+            @Value("${weather.bulk.max-concurrency:8}") int maxConcurrency,
+            @Value("${weather.bulk.timeout-ms:5000}") long timeoutMs) {
+        this.weatherService = weatherService;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.maxCities = maxCities;
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Get current weather for several cities.
+     * Each city gets its own status, so one failing city does not fail the whole request.
+     */
+    public BulkWeatherResponse getCurrentWeather(List<String> cities) {
+        // Normalize and de-duplicate while keeping request order
+        Map<String, String> requested = new LinkedHashMap<>();
+        for (String city : cities) {
+            if (city != null && !city.isBlank()) {
+                requested.putIfAbsent(WeatherData.normalizeCity(city), city.trim());
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one city is required");
+        }
+        if (requested.size() > maxCities) {
+            throw new IllegalArgumentException("At most " + maxCities + " cities can be requested at once");
+        }
+
+        log.info("Bulk current weather request for {} cities", requested.size());
+
+        Map<String, BulkWeatherResponse.CityWeather> results = readCached(requested);
+        fetchMissing(requested, results);
+
+        List<BulkWeatherResponse.CityWeather> ordered = new ArrayList<>(requested.size());
+        requested.keySet().forEach(key -> ordered.add(results.get(key)));
+
+        int cacheHits = countStatus(ordered, "CACHED");
+        int fetched = countStatus(ordered, "FETCHED");
+        return BulkWeatherResponse.builder()
+            .results(ordered)
+            .requested(ordered.size())
+            .cacheHits(cacheHits)
+            .fetched(fetched)
+            .failed(ordered.size() - cacheHits - fetched)
+            .build();
+    }
+
+    /**
+     * Resolve all cached cities with one MGET against the current weather cache.
+     */
+    private Map<String, BulkWeatherResponse.CityWeather> readCached(Map<String, String> requested) {
+        Map<String, BulkWeatherResponse.CityWeather> results = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(requested.keySet());
+        List<String> redisKeys = keys.stream()
+            .map(key -> RedisConfig.CURRENT_WEATHER_CACHE + "::" + key)
+            .toList();
+
+        List<Object> values;
+        try {
+            values = cacheRedisTemplate.opsForValue().multiGet(redisKeys);
+        } catch (Exception e) {
+            log.warn("Bulk cache read failed, fetching all cities: {}", e.getMessage());
+            return results;
+        }
+        if (values == null) {
+            return results;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                results.put(keys.get(i), BulkWeatherResponse.CityWeather.builder()
+                    .city(requested.get(keys.get(i)))
+                    .status("CACHED")
+                    .weather(objectMapper.convertValue(value, WeatherResponse.class))
+                    .build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Fetch cache misses concurrently, at most maxConcurrency upstream calls at a time.
+     */
+    private void fetchMissing(Map<String, String> requested, Map<String, BulkWeatherResponse.CityWeather> results) {
+        Map<String, CompletableFuture<WeatherResponse>> pending = new LinkedHashMap<>();
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            requested.forEach((key, city) -> {
+                if (!results.containsKey(key)) {
+                    pending.put(key, CompletableFuture.supplyAsync(() -> fetchWithPermit(permits, city), executor));
+                }
+            });
+
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            pending.forEach((key, future) ->
+                results.put(key, awaitResult(requested.get(key), future, deadline)));
+        } finally {
+            // Do not wait for timed-out fetches; they still populate the cache when they complete
+            executor.shutdown();
+        }
+    }
+
+    private WeatherResponse fetchWithPermit(Semaphore permits, String city) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to fetch " + city, e);
+        }
+        try {
+            return weatherService.getCurrentWeather(city);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private BulkWeatherResponse.CityWeather awaitResult(String city, CompletableFuture<WeatherResponse> future,
+                                                        long deadline) {
+        BulkWeatherResponse.CityWeather.CityWeatherBuilder result = BulkWeatherResponse.CityWeather.builder()
+            .city(city);
+        try {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            return result.status("FETCHED").weather(future.get(remaining, TimeUnit.MILLISECONDS)).build();
+        } catch (TimeoutException e) {
+            return result.status("TIMEOUT").error("Timed out fetching weather").build();
+        } catch (ExecutionException e) {
+            log.warn("Bulk fetch failed for city {}: {}", city, e.getCause().getMessage());
+            return result.status("FAILED").error(e.getCause().getMessage()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result.status("FAILED").error("Interrupted").build();
+        }
+    }
+
+    private int countStatus(List<BulkWeatherResponse.CityWeather> results, String status) {
+        return (int) results.stream().filter(r -> status.equals(r.getStatus())).count();
+    }
+
+}
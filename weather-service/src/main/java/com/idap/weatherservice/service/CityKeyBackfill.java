@@ -0,0 +1,75 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.repository.WeatherRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Migrates weather_data rows written before the city_key column existed.
+ * Runs once at startup on a background thread, walking the primary key in
+ * small chunks so every chunk is a range seek and never holds long locks.
+ * Once every row has a key the superseded idx_city_timestamp index is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CityKeyBackfill {
+
+    private final WeatherRepository weatherRepository;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "city-key-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${weather.city-key-backfill.chunk-size:5000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::backfill);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    void backfill() {
+        long total = 0;
+        try {
+            Long firstId = weatherRepository.findFirstIdWithoutCityKey();
+            if (firstId != null) {
+                long lastId = firstId - 1;
+                Long upperId;
+                while (!Thread.currentThread().isInterrupted()
+                        && (upperId = weatherRepository.findChunkUpperId(lastId, chunkSize)) != null) {
+                    total += weatherRepository.backfillCityKeys(lastId, upperId);
+                    lastId = upperId;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("City key backfill interrupted after {} rows", total);
+                    return;
+                }
+            }
+            weatherRepository.dropLegacyCityIndex();
+        } catch (Exception e) {
+            log.error("City key backfill stopped after {} rows: {}", total, e.getMessage());
+            return;
+        }
+
+        if (total > 0) {
+            log.info("Backfilled city_key for {} weather_data rows", total);
+        }
+    }
+
+}
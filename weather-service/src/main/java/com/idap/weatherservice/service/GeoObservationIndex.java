@@ -0,0 +1,138 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.dto.WeatherResponse;
+import com.idap.weatherservice.model.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory grid index of the latest observation per city by location.
+ * The globe is divided into fixed-size latitude/longitude cells; a radius query
+ * only visits the cells overlapping the bounding box of the search circle.
+ */
+@Component
+@Slf4j
+public class GeoObservationIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final double cellSizeDegrees;
+    private final int cellsPerRow;
+
+    // Cell id -> city key -> latest observation of that city
+    private final ConcurrentMap<Long, ConcurrentMap<String, WeatherResponse>> cells = new ConcurrentHashMap<>();
+    // City key -> cell currently holding the city, so a moved city is removed from its old cell
+    private final ConcurrentMap<String, Long> cityCells = new ConcurrentHashMap<>();
+
+    public GeoObservationIndex(@Value("${weather.nearby.cell-size-degrees:0.5}") double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.cellsPerRow = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    /**
+     * Index an observation; older observations never replace newer ones.
+     */
+    public void record(WeatherResponse observation) {
+        if (observation.getLatitude() == null || observation.getLongitude() == null
+                || observation.getTimestamp() == null) {
+            return;
+        }
+        String cityKey = WeatherData.normalizeCity(observation.getCity());
+        long cell = cellOf(observation.getLatitude(), observation.getLongitude());
+
+        cells.computeIfAbsent(cell, c -> new ConcurrentHashMap<>())
+            .merge(cityKey, observation,
+                (current, candidate) -> candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate);
+        Long previousCell = cityCells.put(cityKey, cell);
+        if (previousCell != null && previousCell != cell) {
+            Map<String, WeatherResponse> previous = cells.get(previousCell);
+            if (previous != null) {
+                previous.remove(cityKey);
+            }
+        }
+    }
+
+    /**
+     * The most recent observation within the radius that is not older than the given time.
+     */
+    public Optional<WeatherResponse> findFreshest(double latitude, double longitude, double radiusKm,
+                                                  LocalDateTime notBefore) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+
+        // Near the poles or for huge radii the box spans every longitude
+        double cosLatitude = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double longitudeDelta = cosLatitude > 1e-6 ? radiusKm / (KM_PER_DEGREE_LATITUDE * cosLatitude) : 180;
+        int longitudeCells = longitudeDelta >= 180
+            ? cellsPerRow
+            : Math.min(cellsPerRow, (int) Math.ceil(2 * longitudeDelta / cellSizeDegrees) + 1);
+
+        int firstRow = row(minLatitude);
+        int lastRow = row(maxLatitude);
+        int firstColumn = column(longitudeDelta >= 180 ? -180 : longitude - longitudeDelta);
+
+        WeatherResponse freshest = null;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int i = 0; i < longitudeCells; i++) {
+                Map<String, WeatherResponse> cell = cells.get(cellId(r, (firstColumn + i) % cellsPerRow));
+                if (cell == null) {
+                    continue;
+                }
+                for (WeatherResponse observation : cell.values()) {
+                    if (observation.getTimestamp().isBefore(notBefore)
+                            || (freshest != null && !observation.getTimestamp().isAfter(freshest.getTimestamp()))) {
+                        continue;
+                    }
+                    if (distanceKm(latitude, longitude, observation.getLatitude(), observation.getLongitude())
+                            <= radiusKm) {
+                        freshest = observation;
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(freshest);
+    }
+
+    public int size() {
+        return cityCells.size();
+    }
+
+    /**
+     * Great-circle distance between two points (haversine formula).
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return cellId(row(latitude), column(longitude));
+    }
+
+    private long cellId(int row, int column) {
+        return (long) row * cellsPerRow + column;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((Math.min(90, Math.max(-90, latitude)) + 90) / cellSizeDegrees);
+    }
+
+    private int column(double longitude) {
+        double normalized = ((longitude + 180) % 360 + 360) % 360;
+        return Math.min(cellsPerRow - 1, (int) Math.floor(normalized / cellSizeDegrees));
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.config.RedisConfig;
+import com.idap.weatherservice.model.WeatherData;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the current weather of the most requested cities warm.
+ *
+ * Every tick the prefetcher earns upstream call budget at the configured
+ * calls-per-minute rate and spends it on hot cities whose cache entry is
+ * missing or about to expire, soonest-expiring first. This spreads upstream
+ * calls evenly over time and keeps the prefetch traffic within its share of
+ * the OpenWeatherMap quota. Prefetching pauses while the circuit breaker is not closed.
+ */
+@Component
+@Slf4j
+public class HotCityPrefetcher {
+
+    private static final String CIRCUIT_BREAKER = "openweathermap";
+
+    private final HotCityTracker hotCityTracker;
+    private final WeatherService weatherService;
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int topK;
+    private final long refreshBeforeExpiryMs;
+    private final double callsPerTick;
+
+    // Cities due for a refresh, planned once per pass over the working set
+    private final Deque<String> due = new ArrayDeque<>();
+    private double budget;
+
+    public HotCityPrefetcher(
+            HotCityTracker hotCityTracker,
+            WeatherService weatherService,
+            StringRedisTemplate redisTemplate,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${weather.prefetch.enabled:true}") boolean enabled,
+            @Value("${weather.prefetch.top-k:200}") int topK,
+            @Value("${weather.prefetch.refresh-before-expiry-seconds:120}") long refreshBeforeExpirySeconds,
+            @Value("${weather.prefetch.max-calls-per-minute:30}") int maxCallsPerMinute,
+            @Value("${weather.prefetch.tick-ms:1000}") long tickMs) {
+        this.hotCityTracker = hotCityTracker;
+        this.weatherService = weatherService;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.refreshBeforeExpiryMs = TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds);
+        this.callsPerTick = maxCallsPerMinute * tickMs / 60_000.0;
+    }
+
+    @Scheduled(fixedRateString = "${weather.prefetch.tick-ms:1000}",
+               initialDelayString = "${weather.prefetch.initial-delay-ms:30000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER).getState();
+        if (state != CircuitBreaker.State.CLOSED) {
+            return;
+        }
+
+        // Never accumulate more than one tick's worth of calls, so there are no bursts
+        budget = Math.min(Math.max(1, callsPerTick), budget + callsPerTick);
+        while (budget >= 1) {
+            if (due.isEmpty() && !planRefreshes()) {
+                return;
+            }
+            String city = due.poll();
+            // Another instance or a refresh-ahead may have refreshed the entry since planning
+            if (!isExpiringSoon(remainingTtl(city))) {
+                continue;
+            }
+            budget--;
+            prefetch(city);
+        }
+    }
+
+    /**
+     * Read the remaining TTL of every hot city in one pipeline and queue those that need a refresh.
+     * Returns false if nothing is due.
+     */
+    private boolean planRefreshes() {
+        List<String> cities = hotCityTracker.topCities(topK);
+        if (cities.isEmpty()) {
+            return false;
+        }
+
+        List<Object> ttls;
+        try {
+            ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                cities.forEach(city -> stringConnection.pTtl(cacheKey(city)));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not read cache TTLs of hot cities: {}", e.getMessage());
+            return false;
+        }
+
+        Map<String, Long> candidates = new HashMap<>();
+        for (int i = 0; i < cities.size(); i++) {
+            long ttl = ttls.get(i) instanceof Long value ? value : -2;
+            if (isExpiringSoon(ttl)) {
+                candidates.put(cities.get(i), ttl);
+            }
+        }
+        candidates.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(candidate -> due.add(candidate.getKey()));
+        log.debug("Planned prefetch of {} of {} hot cities", candidates.size(), cities.size());
+        return !due.isEmpty();
+    }
+
+    private void prefetch(String city) {
+        try {
+            weatherService.refreshCurrentWeather(city);
+            meterRegistry.counter("weather.prefetch", "result", "success").increment();
+        } catch (Exception e) {
+            meterRegistry.counter("weather.prefetch", "result", "failure").increment();
+            log.warn("Prefetch failed for city {}: {}", city, e.getMessage());
+        }
+    }
+
+    private long remainingTtl(String city) {
+        try {
+            Long ttl = redisTemplate.getExpire(cacheKey(city), TimeUnit.MILLISECONDS);
+            return ttl != null ? ttl : -2;
+        } catch (Exception e) {
+            return -2;
+        }
+    }
+
+    /**
+     * Missing keys (-2) and keys expiring within the refresh window are due.
+     */
+    private boolean isExpiringSoon(long ttlMillis) {
+        return ttlMillis == -2 || (ttlMillis >= 0 && ttlMillis <= refreshBeforeExpiryMs);
+    }
+
+    private String cacheKey(String city) {
+        return RedisConfig.CURRENT_WEATHER_CACHE + "::" + WeatherData.normalizeCity(city);
+    }
+
+}
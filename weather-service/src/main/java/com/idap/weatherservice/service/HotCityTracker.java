@@ -0,0 +1,89 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.model.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks how often each city is requested.
+ * Counts are halved on every decay interval so the working set follows
+ * current demand; cities whose count reaches zero are dropped.
+ */
+@Component
+@Slf4j
+public class HotCityTracker {
+
+    private final ConcurrentMap<String, CityCount> counts = new ConcurrentHashMap<>();
+    private final int maxTracked;
+
+    public HotCityTracker(@Value("${weather.prefetch.max-tracked-cities:5000}") int maxTracked) {
+        this.maxTracked = maxTracked;
+    }
+
+    /**
+     * Request count of one city; keeps the city name as requested for upstream calls.
+     */
+    private static final class CityCount {
+        private final String city;
+        private final LongAdder requests = new LongAdder();
+
+        private CityCount(String city) {
+            this.city = city;
+        }
+    }
+
+    /**
+     * Record a request for a city.
+     * New cities are not tracked once the limit is reached until the next decay frees room.
+     */
+    public void recordRequest(String city) {
+        if (city == null || city.isBlank()) {
+            return;
+        }
+        String cityKey = WeatherData.normalizeCity(city);
+        CityCount count = counts.get(cityKey);
+        if (count == null) {
+            if (counts.size() >= maxTracked) {
+                return;
+            }
+            count = counts.computeIfAbsent(cityKey, k -> new CityCount(city.trim()));
+        }
+        count.requests.increment();
+    }
+
+    /**
+     * The most requested cities, most requested first.
+     */
+    public List<String> topCities(int limit) {
+        return counts.values().stream()
+            .map(count -> Map.entry(count.city, count.requests.sum()))
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Halve all counts so old demand fades out.
+     */
+    @Scheduled(fixedDelayString = "${weather.prefetch.decay-interval-ms:600000}")
+    public void decay() {
+        counts.entrySet().removeIf(entry -> {
+            LongAdder requests = entry.getValue().requests;
+            long current = requests.sum();
+            requests.add(-(current - current / 2));
+            return current / 2 == 0;
+        });
+        log.debug("Decayed hot city counts, {} cities tracked", counts.size());
+    }
+
+}
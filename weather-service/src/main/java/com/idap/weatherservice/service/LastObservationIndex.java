@@ -0,0 +1,80 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.model.WeatherData;
+import com.idap.weatherservice.repository.WeatherRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of the latest observed temperature per city.
+ * Updated on every save and warmed at startup, so computing the temperature
+ * change for weather events needs no database read. A city this instance has
+ * never seen is looked up in the database once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LastObservationIndex {
+
+    private final WeatherRepository weatherRepository;
+    private final ConcurrentMap<String, Observation> observations = new ConcurrentHashMap<>();
+
+    @Value("${weather.last-observation.warmup-hours:24}")
+    private int warmupHours;
+
+    public record Observation(double temperature, LocalDateTime timestamp) {
+    }
+
+    /**
+     * Load the latest observation of every city seen within the warmup window.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<WeatherData> latest = weatherRepository.findLatestPerCitySince(
+                LocalDateTime.now().minusHours(warmupHours));
+            latest.forEach(data -> record(data.getCity(), data.getTemperature(), data.getTimestamp()));
+            log.info("Warmed last observation index with {} cities", latest.size());
+        } catch (Exception e) {
+            log.warn("Could not warm last observation index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record an observation; older observations never replace newer ones.
+     */
+    public void record(String city, double temperature, LocalDateTime timestamp) {
+        Observation observation = new Observation(temperature, timestamp);
+        observations.merge(WeatherData.normalizeCity(city), observation,
+            (current, candidate) -> candidate.timestamp().isBefore(current.timestamp()) ? current : candidate);
+    }
+
+    /**
+     * Latest known temperature for a city, if any.
+     */
+    public Optional<Double> getLastTemperature(String city) {
+        String cityKey = WeatherData.normalizeCity(city);
+        Observation observation = observations.get(cityKey);
+        if (observation == null) {
+            observation = weatherRepository.findTopByCityKeyOrderByTimestampDesc(cityKey)
+                .map(data -> new Observation(data.getTemperature(), data.getTimestamp()))
+                .orElse(null);
+            if (observation != null) {
+                observation = observations.merge(cityKey, observation,
+                    (current, candidate) -> candidate.timestamp().isBefore(current.timestamp()) ? current : candidate);
+            }
+        }
+        return Optional.ofNullable(observation).map(Observation::temperature);
+    }
+
+}
@@ -0,0 +1,305 @@
+package com.idap.weatherservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idap.weatherservice.model.WeatherData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for weather observations.
+ *
+ * In ASYNC mode observations are placed on a bounded queue and a background
+ * thread flushes them as JDBC batches, either when a batch fills up or when the
+ * flush interval elapses. When the queue is full the caller waits up to the
+ * offer timeout and then writes the observation itself, so a full queue never drops data.
+ * SYNC mode writes every observation on the calling thread.
+ *
+ * A batch is inserted in a single transaction, so it is either stored completely
+ * or not at all, and only stored batches are folded into the weather rollups.
+ * Writes on the calling thread (SYNC mode and the queue-full fallback) rethrow
+ * failures to the caller. Background batches are retried with exponential backoff
+ * and then published to the dead-letter topic instead of being dropped;
+ * {@link WeatherDeadLetterReplayer} writes them back through {@link #replay}
+ * once the database accepts them again.
+ */
+@Component
+@Slf4j
+public class WeatherDataWriter {
+
+    public enum Mode { SYNC, ASYNC }
+
+    private static final String INSERT_SQL = """
+        INSERT INTO weather_data (city, city_key, country, temperature, feels_like, humidity, pressure,
+            wind_speed, wind_direction, weather_main, weather_description, weather_icon,
+            cloudiness, visibility, timestamp, created_at, latitude, longitude)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WeatherRollupWriter rollupWriter;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String deadLetterTopic;
+    private final Mode mode;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final BlockingQueue<WeatherData> queue;
+
+    private final Counter rowsWritten;
+    private final Counter rowsFailed;
+    private final Counter rowsDeadLettered;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WeatherDataWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            WeatherRollupWriter rollupWriter,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${weather.persistence.mode:async}") String mode,
+            @Value("${weather.persistence.batch-size:500}") int batchSize,
+            @Value("${weather.persistence.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${weather.persistence.queue-capacity:10000}") int queueCapacity,
+            @Value("${weather.persistence.offer-timeout-ms:50}") long offerTimeoutMs,
+            @Value("${weather.persistence.max-retries:3}") int maxRetries,
+            @Value("${weather.persistence.retry-backoff-ms:500}") long retryBackoffMs,
+            @Value("${kafka.topics.weather-dead-letter:weather.data.dead-letter}") String deadLetterTopic) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupWriter = rollupWriter;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.deadLetterTopic = deadLetterTopic;
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.rowsWritten = Counter.builder("weather.persistence.rows")
+            .tag("result", "written").register(meterRegistry);
+        this.rowsFailed = Counter.builder("weather.persistence.rows")
+            .tag("result", "failed").register(meterRegistry);
+        this.rowsDeadLettered = Counter.builder("weather.persistence.rows")
+            .tag("result", "dead_lettered").register(meterRegistry);
+        Gauge.builder("weather.persistence.queue.size", queue, BlockingQueue::size)
+            .description("Observations waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (mode != Mode.ASYNC) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "weather-data-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Weather data write-behind started (batch size {}, flush interval {}ms)",
+            batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Stop the background flusher and write whatever is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<WeatherData> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            writeWithRetry(remaining.subList(i, Math.min(remaining.size(), i + batchSize)));
+        }
+    }
+
+    /**
+     * Write a dead-lettered observation on the calling thread, bypassing the queue.
+     * Throws when the write fails, so the caller can retry it later.
+     */
+    public void replay(WeatherData data) {
+        writeBatch(List.of(data));
+    }
+
+    /**
+     * Persist an observation according to the configured durability mode.
+     * Throws when the observation is written on the calling thread and the write fails.
+     */
+    public void write(WeatherData data) {
+        if (data.getCreatedAt() == null) {
+            data.setCreatedAt(LocalDateTime.now());
+        }
+
+        if (mode == Mode.SYNC) {
+            writeBatch(List.of(data));
+            return;
+        }
+
+        try {
+            if (queue.offer(data, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            log.warn("Weather data queue full, writing observation for {} synchronously", data.getCity());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeBatch(List.of(data));
+    }
+
+    private void flushLoop() {
+        List<WeatherData> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                WeatherData first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the flush interval has elapsed
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    WeatherData next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                writeWithRetry(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a background batch, retrying with exponential backoff before
+     * handing it to the dead-letter topic.
+     */
+    private void writeWithRetry(List<WeatherData> batch) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxRetries) {
+                    log.error("Giving up on batch of {} weather observations after {} attempts: {}",
+                        batch.size(), attempt + 1, e.getMessage());
+                    break;
+                }
+                log.warn("Retrying batch of {} weather observations in {}ms: {}",
+                    batch.size(), backoffMs, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoffMs *= 2;
+        }
+        deadLetter(batch);
+    }
+
+    private void writeBatch(List<WeatherData> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind));
+        } catch (RuntimeException e) {
+            rowsFailed.increment(batch.size());
+            throw e;
+        }
+        rowsWritten.increment(batch.size());
+        log.debug("Wrote batch of {} weather observations", batch.size());
+        rollupWriter.apply(batch);
+    }
+
+    private void deadLetter(List<WeatherData> batch) {
+        for (WeatherData data : batch) {
+            try {
+                kafkaTemplate.send(deadLetterTopic, WeatherData.normalizeCity(data.getCity()),
+                        objectMapper.writeValueAsString(data))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to dead-letter weather observation for {}: {}",
+                                data.getCity(), ex.getMessage());
+                        } else {
+                            rowsDeadLettered.increment();
+                        }
+                    });
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize weather observation for {}: {}", data.getCity(), e.getMessage());
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, WeatherData data) throws SQLException {
+        ps.setString(1, data.getCity());
+        ps.setString(2, WeatherData.normalizeCity(data.getCity()));
+        ps.setString(3, data.getCountry());
+        ps.setObject(4, data.getTemperature());
+        ps.setObject(5, data.getFeelsLike());
+        ps.setObject(6, data.getHumidity());
+        ps.setObject(7, data.getPressure());
+        ps.setObject(8, data.getWindSpeed());
+        ps.setString(9, data.getWindDirection());
+        ps.setString(10, data.getWeatherMain());
+        ps.setString(11, data.getWeatherDescription());
+        ps.setString(12, data.getWeatherIcon());
+        ps.setObject(13, data.getCloudiness());
+        ps.setObject(14, data.getVisibility());
+        ps.setTimestamp(15, Timestamp.valueOf(data.getTimestamp()));
+        ps.setTimestamp(16, Timestamp.valueOf(data.getCreatedAt()));
+        ps.setObject(17, data.getLatitude());
+        ps.setObject(18, data.getLongitude());
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.idap.weatherservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idap.weatherservice.model.WeatherData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes observations from the dead-letter topic back to weather_data and the rollups.
+ *
+ * A failed write is thrown back to the listener container, which keeps
+ * redelivering the record at the replay retry interval without committing it,
+ * so nothing on the topic is lost while the database is down. Records that are
+ * not valid observations are logged and skipped.
+ */
+@Component
+@ConditionalOnProperty(value = "weather.persistence.dead-letter-replay.enabled", havingValue = "true",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class WeatherDeadLetterReplayer {
+
+    private final WeatherDataWriter weatherDataWriter;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${kafka.topics.weather-dead-letter:weather.data.dead-letter}",
+        groupId = "weather-service-dead-letter-replay")
+    public void replay(String payload) {
+        WeatherData data;
+        try {
+            data = objectMapper.readValue(payload, WeatherData.class);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable dead-lettered weather observation: {}", e.getMessage());
+            return;
+        }
+        weatherDataWriter.replay(data);
+        log.info("Replayed dead-lettered weather observation for {} at {}", data.getCity(), data.getTimestamp());
+    }
+
+}
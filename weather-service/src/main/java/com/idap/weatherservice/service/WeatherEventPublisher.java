@@ -2,6 +2,7 @@ package com.idap.weatherservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idap.events.avro.WeatherUpdated;
 import com.idap.weatherservice.dto.WeatherEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,28 +15,34 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for publishing weather events to Kafka.
+ * Events are sent as JSON, or as compact Avro records when kafka.events.encoding is avro.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WeatherEventPublisher {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
 
     @Value("${kafka.topics.weather-updated:weather.updated}")
     private String weatherUpdatedTopic;
 
+    @Value("${kafka.events.encoding:json}")
+    private String encoding;
+
     /**
      * Publish weather update event to Kafka.
      * Events are published when weather data is fetched/updated.
      */
     public void publishWeatherUpdate(WeatherEvent event) {
         try {
-            String message = objectMapper.writeValueAsString(event);
+            Object message = "avro".equalsIgnoreCase(encoding)
+                ? toAvro(event)
+                : objectMapper.writeValueAsString(event);
             String key = event.getCity().toLowerCase().replace(" ", "-");
 
-            CompletableFuture<SendResult<String, String>> future = 
+            CompletableFuture<SendResult<String, Object>> future = 
                 kafkaTemplate.send(weatherUpdatedTopic, key, message);
 
             future.whenComplete((result, ex) -> {
@@ -66,4 +73,19 @@ public class WeatherEventPublisher {
         }
     }
 
+    private WeatherUpdated toAvro(WeatherEvent event) {
+        return WeatherUpdated.newBuilder()
+            .setEventType(event.getEventType())
+            .setCity(event.getCity())
+            .setCountry(event.getCountry())
+            .setPreviousTemperature(event.getPreviousTemperature())
+            .setCurrentTemperature(event.getCurrentTemperature())
+            .setTemperatureChange(event.getTemperatureChange())
+            .setWeatherMain(event.getWeatherMain())
+            .setWeatherDescription(event.getWeatherDescription())
+            .setTimestamp(event.getTimestamp())
+            .setSource(event.getSource())
+            .build();
+    }
+
 }
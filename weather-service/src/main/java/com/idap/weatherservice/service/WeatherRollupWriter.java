@@ -0,0 +1,142 @@
+package com.idap.weatherservice.service;
+
+import com.idap.weatherservice.model.RollupResolution;
+import com.idap.weatherservice.model.WeatherData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintains the weather_rollups table.
+ * Each written batch of observations is folded into per-bucket aggregates in
+ * memory and merged into the table with one batched upsert per batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WeatherRollupWriter {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO weather_rollups (city_key, city, resolution, bucket_start, sample_count,
+            temperature_min, temperature_max, temperature_sum,
+            humidity_min, humidity_max, humidity_sum,
+            pressure_min, pressure_max, pressure_sum,
+            wind_speed_min, wind_speed_max, wind_speed_sum, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (city_key, resolution, bucket_start) DO UPDATE SET
+            city = EXCLUDED.city,
+            sample_count = weather_rollups.sample_count + EXCLUDED.sample_count,
+            temperature_min = LEAST(weather_rollups.temperature_min, EXCLUDED.temperature_min),
+            temperature_max = GREATEST(weather_rollups.temperature_max, EXCLUDED.temperature_max),
+            temperature_sum = weather_rollups.temperature_sum + EXCLUDED.temperature_sum,
+            humidity_min = LEAST(weather_rollups.humidity_min, EXCLUDED.humidity_min),
+            humidity_max = GREATEST(weather_rollups.humidity_max, EXCLUDED.humidity_max),
+            humidity_sum = weather_rollups.humidity_sum + EXCLUDED.humidity_sum,
+            pressure_min = LEAST(weather_rollups.pressure_min, EXCLUDED.pressure_min),
+            pressure_max = GREATEST(weather_rollups.pressure_max, EXCLUDED.pressure_max),
+            pressure_sum = weather_rollups.pressure_sum + EXCLUDED.pressure_sum,
+            wind_speed_min = LEAST(weather_rollups.wind_speed_min, EXCLUDED.wind_speed_min),
+            wind_speed_max = GREATEST(weather_rollups.wind_speed_max, EXCLUDED.wind_speed_max),
+            wind_speed_sum = weather_rollups.wind_speed_sum + EXCLUDED.wind_speed_sum,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fold a batch of persisted observations into every rollup resolution.
+     */
+    public void apply(List<WeatherData> observations) {
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (WeatherData data : observations) {
+            String cityKey = WeatherData.normalizeCity(data.getCity());
+            for (RollupResolution resolution : RollupResolution.values()) {
+                LocalDateTime bucketStart = resolution.bucketStart(data.getTimestamp());
+                buckets.computeIfAbsent(cityKey + '|' + resolution + '|' + bucketStart,
+                        k -> new Bucket(cityKey, data.getCity(), resolution, bucketStart))
+                    .add(data);
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(buckets.values()), buckets.size(), (ps, bucket) -> {
+                ps.setString(1, bucket.cityKey);
+                ps.setString(2, bucket.city);
+                ps.setString(3, bucket.resolution.name());
+                ps.setTimestamp(4, Timestamp.valueOf(bucket.bucketStart));
+                ps.setLong(5, bucket.count);
+                ps.setDouble(6, bucket.temperatureMin);
+                ps.setDouble(7, bucket.temperatureMax);
+                ps.setDouble(8, bucket.temperatureSum);
+                ps.setInt(9, bucket.humidityMin);
+                ps.setInt(10, bucket.humidityMax);
+                ps.setDouble(11, bucket.humiditySum);
+                ps.setInt(12, bucket.pressureMin);
+                ps.setInt(13, bucket.pressureMax);
+                ps.setDouble(14, bucket.pressureSum);
+                ps.setDouble(15, bucket.windSpeedMin);
+                ps.setDouble(16, bucket.windSpeedMax);
+                ps.setDouble(17, bucket.windSpeedSum);
+                ps.setTimestamp(18, Timestamp.valueOf(LocalDateTime.now()));
+            });
+        } catch (Exception e) {
+            log.error("Failed to update {} weather rollup buckets: {}", buckets.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregates of the observations of one batch that fall into the same bucket.
+     */
+    private static final class Bucket {
+        private final String cityKey;
+        private final String city;
+        private final RollupResolution resolution;
+        private final LocalDateTime bucketStart;
+
+        private long count;
+        private double temperatureMin = Double.MAX_VALUE;
+        private double temperatureMax = -Double.MAX_VALUE;
+        private double temperatureSum;
+        private int humidityMin = Integer.MAX_VALUE;
+        private int humidityMax = Integer.MIN_VALUE;
+        private double humiditySum;
+        private int pressureMin = Integer.MAX_VALUE;
+        private int pressureMax = Integer.MIN_VALUE;
+        private double pressureSum;
+        private double windSpeedMin = Double.MAX_VALUE;
+        private double windSpeedMax = -Double.MAX_VALUE;
+        private double windSpeedSum;
+
+        private Bucket(String cityKey, String city, RollupResolution resolution, LocalDateTime bucketStart) {
+            this.cityKey = cityKey;
+            this.city = city;
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        private void add(WeatherData data) {
+            count++;
+            temperatureMin = Math.min(temperatureMin, data.getTemperature());
+            temperatureMax = Math.max(temperatureMax, data.getTemperature());
+            temperatureSum += data.getTemperature();
+            humidityMin = Math.min(humidityMin, data.getHumidity());
+            humidityMax = Math.max(humidityMax, data.getHumidity());
+            humiditySum += data.getHumidity();
+            pressureMin = Math.min(pressureMin, data.getPressure());
+            pressureMax = Math.max(pressureMax, data.getPressure());
+            pressureSum += data.getPressure();
+            windSpeedMin = Math.min(windSpeedMin, data.getWindSpeed());
+            windSpeedMax = Math.max(windSpeedMax, data.getWindSpeed());
+            windSpeedSum += data.getWindSpeed();
+        }
+    }
+
+}
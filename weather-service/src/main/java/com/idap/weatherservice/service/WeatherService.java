@@ -1,16 +1,27 @@
 package com.idap.weatherservice.service;
 
+import com.idap.weatherservice.cache.RefreshAheadCacheManager;
 import com.idap.weatherservice.client.OpenWeatherMapClient;
+import com.idap.weatherservice.config.RedisConfig;
 import com.idap.weatherservice.dto.ForecastResponse;
 import com.idap.weatherservice.dto.WeatherEvent;
 import com.idap.weatherservice.dto.WeatherResponse;
+import com.idap.weatherservice.dto.WeatherRollupResponse;
+import com.idap.weatherservice.model.RollupResolution;
 import com.idap.weatherservice.model.WeatherData;
+import com.idap.weatherservice.model.WeatherRollup;
 import com.idap.weatherservice.repository.WeatherRepository;
+import com.idap.weatherservice.repository.WeatherRollupRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,22 +39,85 @@ public class WeatherService {
 
     private final OpenWeatherMapClient weatherClient;
     private final WeatherRepository weatherRepository;
+    private final WeatherRollupRepository rollupRepository;
     private final WeatherEventPublisher eventPublisher;
+    private final WeatherDataWriter weatherDataWriter;
+    private final LastObservationIndex lastObservations;
+    private final GeoObservationIndex geoIndex;
+    private final RefreshAheadCacheManager cacheManager;
+
+    @Value("${weather.nearby.max-age-minutes:15}")
+    private long nearbyMaxAgeMinutes;
+
+    @Value("${weather.nearby.max-radius-km:100}")
+    private double nearbyMaxRadiusKm;
+
+    /**
+     * Coalesces concurrent cache misses so only one upstream fetch per city is in flight.
+     */
+    private final RequestCoalescer<WeatherResponse> currentWeatherRequests = new RequestCoalescer<>();
+
+    /**
+     * Register the loaders used to refresh weather caches ahead of expiry.
+     * Keys match the @Cacheable keys below; fallback responses are not cached.
+     */
+    @PostConstruct
+    void registerRefreshLoaders() {
+        cacheManager.registerLoader(RedisConfig.CURRENT_WEATHER_CACHE, key -> {
+            String city = (String) key;
+            WeatherResponse response = currentWeatherRequests.execute(city, () -> fetchCurrentWeather(city));
+            return isFallback(response.getSource()) ? null : response;
+        });
+        cacheManager.registerLoader(RedisConfig.FORECAST_CACHE, key -> {
+            String cacheKey = (String) key;
+            int separator = cacheKey.lastIndexOf(':');
+            ForecastResponse response = weatherClient.getForecast(
+                cacheKey.substring(0, separator), Integer.parseInt(cacheKey.substring(separator + 1)));
+            return isFallback(response.getSource()) ? null : response;
+        });
+    }
 
     /**
      * Get current weather for a city.
      * Results are cached in Redis for 10 minutes.
+     * Concurrent misses for the same city share a single upstream fetch.
      */
-    @Cacheable(value = "weather:current", key = "#city.toLowerCase()", unless = "#result.source == 'FALLBACK'")
+    @Cacheable(value = "weather:current", key = "T(com.idap.weatherservice.model.WeatherData).normalizeCity(#city)",
+        unless = "#result.source == 'FALLBACK'")
     public WeatherResponse getCurrentWeather(String city) {
+        return currentWeatherRequests.execute(WeatherData.normalizeCity(city), () -> fetchCurrentWeather(city));
+    }
+
+    /**
+     * Fetch current weather for a city and overwrite its cache entry.
+     * Used to keep hot cities warm; fallback responses leave the cached entry untouched.
+     */
+    @CachePut(value = "weather:current", key = "T(com.idap.weatherservice.model.WeatherData).normalizeCity(#city)",
+        unless = "#result.source == 'FALLBACK'")
+    public WeatherResponse refreshCurrentWeather(String city) {
+        return currentWeatherRequests.execute(WeatherData.normalizeCity(city), () -> fetchCurrentWeather(city));
+    }
+
+    /**
+     * Fetch current weather from the API, store it and publish the update event.
+     */
+    private WeatherResponse fetchCurrentWeather(String city) {
         log.info("Fetching current weather for city: {}", city);
         
-        // Get previous temperature for comparison
-        Optional<Double> previousTemp = getPreviousTemperature(city);
+        // Get previous temperature for comparison (served from memory)
+        Optional<Double> previousTemp = lastObservations.getLastTemperature(city);
         
         // Fetch from API
         WeatherResponse response = weatherClient.getCurrentWeather(city);
         
+        recordObservation(response, previousTemp);
+        return response;
+    }
+
+    /**
+     * Store a fetched observation and publish its update event and temperature alert.
+     */
+    private void recordObservation(WeatherResponse response, Optional<Double> previousTemp) {
         // Store in database
         saveWeatherData(response);
         
@@ -55,15 +129,67 @@ public class WeatherService {
         if (previousTemp.isPresent() && Math.abs(response.getTemperature() - previousTemp.get()) > 5.0) {
             eventPublisher.publishTemperatureAlert(event);
         }
-        
+    }
+
+    /**
+     * Get current weather near a location.
+     * Returns the freshest observation within the radius from the in-memory geo index,
+     * and only calls the API when there is none. Fetched observations are cached by city.
+     */
+    public WeatherResponse getNearbyWeather(double latitude, double longitude, double radiusKm) {
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+        if (radiusKm <= 0 || radiusKm > nearbyMaxRadiusKm) {
+            throw new IllegalArgumentException("Radius must be greater than 0 and at most " + nearbyMaxRadiusKm + " km");
+        }
+
+        Optional<WeatherResponse> nearby = geoIndex.findFreshest(latitude, longitude, radiusKm,
+            LocalDateTime.now().minusMinutes(nearbyMaxAgeMinutes));
+        if (nearby.isPresent()) {
+            log.debug("Serving nearby weather for {}, {} from observation of {}",
+                latitude, longitude, nearby.get().getCity());
+            return nearby.get();
+        }
+
+        log.info("No recent observation within {} km of {}, {}; fetching from API", radiusKm, latitude, longitude);
+        WeatherResponse response = weatherClient.getCurrentWeatherByCoordinates(latitude, longitude);
+        if (!"API".equals(response.getSource())) {
+            return response;
+        }
+
+        recordObservation(response, lastObservations.getLastTemperature(response.getCity()));
+        Cache currentWeatherCache = cacheManager.getCache(RedisConfig.CURRENT_WEATHER_CACHE);
+        if (currentWeatherCache != null) {
+            currentWeatherCache.put(WeatherData.normalizeCity(response.getCity()), response);
+        }
         return response;
     }
 
+    /**
+     * Load recent observations into the geo index so nearby lookups are served from memory after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmGeoIndex() {
+        try {
+            weatherRepository.findLatestPerCitySince(LocalDateTime.now().minusMinutes(nearbyMaxAgeMinutes))
+                .forEach(data -> geoIndex.record(mapToWeatherResponse(data)));
+            log.info("Warmed geo observation index with {} cities", geoIndex.size());
+        } catch (Exception e) {
+            log.warn("Could not warm geo observation index: {}", e.getMessage());
+        }
+    }
+
     /**
      * Get weather forecast for a city.
      * Results are cached in Redis for 30 minutes.
      */
-    @Cacheable(value = "weather:forecast", key = "#city.toLowerCase() + ':' + #days", unless = "#result.source == 'FALLBACK'")
+    @Cacheable(value = "weather:forecast",
+        key = "T(com.idap.weatherservice.model.WeatherData).normalizeCity(#city) + ':' + #days",
+        unless = "#result.source == 'FALLBACK'")
     public ForecastResponse getForecast(String city, int days) {
         log.info("Fetching forecast for city: {}, days: {}", city, days);
         return weatherClient.getForecast(city, days);
@@ -77,26 +203,43 @@ public class WeatherService {
         
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         List<WeatherData> data = weatherRepository
-            .findByCityIgnoreCaseAndTimestampBetweenOrderByTimestampDesc(
-                city, since, LocalDateTime.now());
+            .findByCityKeyAndTimestampBetweenOrderByTimestampDesc(
+                WeatherData.normalizeCity(city), since, LocalDateTime.now());
         
         return data.stream()
             .map(this::mapToWeatherResponse)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Get downsampled historical weather for a city from the rollup tables.
+     * Returns one entry per bucket, so the result size depends only on the window and resolution.
+     */
+    public List<WeatherRollupResponse> getHistoricalRollups(String city, int hours, RollupResolution resolution) {
+        log.info("Fetching {} rollups for city: {}, last {} hours", resolution.getCode(), city, hours);
+
+        LocalDateTime now = LocalDateTime.now();
+        return rollupRepository
+            .findByCityKeyAndResolutionAndBucketStartBetweenOrderByBucketStartDesc(
+                WeatherData.normalizeCity(city), resolution,
+                resolution.bucketStart(now.minusHours(hours)), now)
+            .stream()
+            .map(this::mapToRollupResponse)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Get the most recent weather data for a city from database.
      */
     public Optional<WeatherResponse> getLastKnownWeather(String city) {
-        return weatherRepository.findTopByCityIgnoreCaseOrderByTimestampDesc(city)
+        return weatherRepository.findTopByCityKeyOrderByTimestampDesc(WeatherData.normalizeCity(city))
             .map(this::mapToWeatherResponse);
     }
 
     /**
      * Save weather data to database.
+     * The write is handed to the write-behind writer and stays off the request path in async mode.
      */
-    @Transactional
     public void saveWeatherData(WeatherResponse response) {
         WeatherData data = WeatherData.builder()
             .city(response.getCity())
@@ -117,13 +260,38 @@ public class WeatherService {
             .timestamp(response.getTimestamp())
             .build();
 
-        weatherRepository.save(data);
-        log.debug("Saved weather data for city: {}", response.getCity());
+        lastObservations.record(response.getCity(), response.getTemperature(), response.getTimestamp());
+        if ("API".equals(response.getSource())) {
+            geoIndex.record(response);
+        }
+        weatherDataWriter.write(data);
+        log.debug("Queued weather data for city: {}", response.getCity());
+    }
+
+    private boolean isFallback(String source) {
+        return "FALLBACK".equals(source);
     }
 
-    private Optional<Double> getPreviousTemperature(String city) {
-        return weatherRepository.findTopByCityIgnoreCaseOrderByTimestampDesc(city)
-            .map(WeatherData::getTemperature);
+    private WeatherRollupResponse mapToRollupResponse(WeatherRollup rollup) {
+        double count = rollup.getSampleCount();
+        return WeatherRollupResponse.builder()
+            .city(rollup.getCity())
+            .resolution(rollup.getResolution().getCode())
+            .bucketStart(rollup.getBucketStart())
+            .sampleCount(rollup.getSampleCount())
+            .temperatureMin(rollup.getTemperatureMin())
+            .temperatureMax(rollup.getTemperatureMax())
+            .temperatureAvg(rollup.getTemperatureSum() / count)
+            .humidityMin(rollup.getHumidityMin())
+            .humidityMax(rollup.getHumidityMax())
+            .humidityAvg(rollup.getHumiditySum() / count)
+            .pressureMin(rollup.getPressureMin())
+            .pressureMax(rollup.getPressureMax())
+            .pressureAvg(rollup.getPressureSum() / count)
+            .windSpeedMin(rollup.getWindSpeedMin())
+            .windSpeedMax(rollup.getWindSpeedMax())
+            .windSpeedAvg(rollup.getWindSpeedSum() / count)
+            .build();
     }
 
     private WeatherResponse mapToWeatherResponse(WeatherData data) {